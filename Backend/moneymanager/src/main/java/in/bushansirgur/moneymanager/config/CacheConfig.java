@@ -1,23 +1,56 @@
 package in.bushansirgur.moneymanager.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+
 /**
- * Cache configuration is DISABLED.
- *
- * Caching was causing issues with:
- * - Profile data becoming stale
- * - Authentication failures due to cached Optional objects
- * - Login failures after registration
+ * Bounded in-process caches for per-profile read models.
  *
- * If caching is needed in the future, implement it carefully with:
- * - Proper cache eviction strategies
- * - Avoid caching Optional objects
- * - Ensure cache keys don't collide
+ * Caching was disabled earlier because cached Optional profile lookups served stale data
+ * to authentication (e.g. "not found" right after registration). The rules now:
+ * - Only the caches declared here exist; asking the manager for any other name returns null,
+ *   so nothing can start caching by accident.
+ * - Nothing authentication-related is cached here — profiles, emails, passwords, tokens.
+ *   (Verified JWTs have their own cache that still re-checks the token version.)
+ * - Null values are rejected, and every key is (profile id, data version): a committed write
+ *   moves the version, so older entries are never read again (see ProfileDataCache). The TTL
+ *   and size bound are what finally drop them.
  */
 @Configuration
-// @EnableCaching - DISABLED to prevent authentication issues
+@EnableCaching
 public class CacheConfig {
-    // Caching is disabled - no beans configured
-}
 
+    public static final String DASHBOARD = "dashboard";
+    public static final String CATEGORIES = "categories";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${cache.dashboard.max-size:10000}") long dashboardMaxSize,
+            @Value("${cache.dashboard.ttl-minutes:10}") long dashboardTtlMinutes,
+            @Value("${cache.categories.max-size:30000}") long categoriesMaxSize,
+            @Value("${cache.categories.ttl-minutes:60}") long categoriesTtlMinutes) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        // A fixed (empty) name list switches off on-demand cache creation
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(DASHBOARD, Caffeine.newBuilder()
+                .maximumSize(dashboardMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(dashboardTtlMinutes))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(CATEGORIES, Caffeine.newBuilder()
+                .maximumSize(categoriesMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(categoriesTtlMinutes))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
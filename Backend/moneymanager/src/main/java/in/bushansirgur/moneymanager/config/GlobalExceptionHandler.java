@@ -3,6 +3,7 @@ package in.bushansirgur.moneymanager.config;
 import in.bushansirgur.moneymanager.exception.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -14,7 +15,9 @@ import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.util.DisconnectedClientHelper;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -28,6 +31,10 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    // Logs abandoned downloads at DEBUG under this category instead of as errors
+    private static final DisconnectedClientHelper disconnectedClientHelper =
+            new DisconnectedClientHelper(GlobalExceptionHandler.class.getName() + ".disconnected");
+
     // ============ Custom Application Exceptions ============
 
     @ExceptionHandler(BaseException.class)
@@ -55,6 +62,14 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getStatus(), ex.getMessage(), ex.getErrorCode());
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyRequestsException(TooManyRequestsException ex) {
+        ResponseEntity<Map<String, Object>> error = buildErrorResponse(ex.getStatus(), ex.getMessage(), ex.getErrorCode());
+        return ResponseEntity.status(error.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error.getBody());
+    }
+
     @ExceptionHandler(in.bushansirgur.moneymanager.exception.AuthenticationException.class)
     public ResponseEntity<Map<String, Object>> handleCustomAuthenticationException(
             in.bushansirgur.moneymanager.exception.AuthenticationException ex) {
@@ -124,6 +139,15 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "An error occurred while processing your request. Please try again.", "RUNTIME_ERROR");
     }
 
+    @ExceptionHandler(IOException.class)
+    public ResponseEntity<Map<String, Object>> handleIOException(IOException ex) {
+        // The client left mid-download (streamed exports): there is no one to send an error to
+        if (disconnectedClientHelper.checkAndLogClientDisconnectedException(ex)) {
+            return null;
+        }
+        return handleGenericException(ex);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
         // Log the full exception for debugging (not exposed to client)
@@ -1,6 +1,7 @@
 package in.bushansirgur.moneymanager.config;
 
 import in.bushansirgur.moneymanager.service.AppUserDetailsService;
+import in.bushansirgur.moneymanager.security.BCryptCostCalibrator;
 import in.bushansirgur.moneymanager.security.JwtAuthenticationEntryPoint;
 import in.bushansirgur.moneymanager.security.JwtRequestFilter;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -25,6 +27,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -59,9 +62,18 @@ public class SecurityConfig {
         return httpSecurity.build();
     }
 
+    /**
+     * BCrypt at the cost calibrated for this machine, behind a DelegatingPasswordEncoder
+     * so new hashes carry an {id} prefix. Hashes stored before the prefix existed are
+     * plain BCrypt and still match; upgradeEncoding() flags them (and any hash with a
+     * lower cost) so ProfileService re-encodes them on the next successful login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(BCryptCostCalibrator costCalibrator) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(costCalibrator.calibrate());
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
@@ -80,10 +92,10 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationManager authenticationManager() {
+    public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(appUserDetailsService);
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
         return new ProviderManager(authenticationProvider);
     }
 }
\ No newline at end of file
@@ -2,8 +2,11 @@ package in.bushansirgur.moneymanager.controller;
 
 import in.bushansirgur.moneymanager.dto.CategoryDTO;
 import in.bushansirgur.moneymanager.entity.CategoryEntity;
+import in.bushansirgur.moneymanager.service.DataVersionService;
 import in.bushansirgur.moneymanager.service.CategoryService;
+import in.bushansirgur.moneymanager.service.DataVersionService.DataVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +19,7 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final DataVersionService dataVersionService;
 
     @PostMapping
     public ResponseEntity<CategoryDTO> saveCategory(@RequestBody CategoryDTO categoryDTO) {
@@ -24,15 +28,20 @@ public class CategoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> getCategories() {
-        List<CategoryDTO> categories = categoryService.getCategoriesForCurrentUser();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<CategoryDTO>> getCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        DataVersion version = dataVersionService.current();
+        return ConditionalGet.respond(ifNoneMatch, version.etag(),
+                () -> categoryService.getCategoriesForCurrentUser(version));
     }
 
     @GetMapping("/{type}")
-    public ResponseEntity<List<CategoryDTO>> getCategoriesByTypeForCurrentUser(@PathVariable String type) {
-        List<CategoryDTO> list = categoryService.getCategoriesByTypeForCurrentUser(type);
-        return ResponseEntity.ok(list);
+    public ResponseEntity<List<CategoryDTO>> getCategoriesByTypeForCurrentUser(
+            @PathVariable String type,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        DataVersion version = dataVersionService.current();
+        return ConditionalGet.respond(ifNoneMatch, version.etag(),
+                () -> categoryService.getCategoriesByTypeForCurrentUser(type, version));
     }
 
     @PutMapping("/{categoryId}")
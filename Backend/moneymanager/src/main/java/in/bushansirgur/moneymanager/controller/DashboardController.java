@@ -1,9 +1,13 @@
 package in.bushansirgur.moneymanager.controller;
 
+import in.bushansirgur.moneymanager.service.DataVersionService;
 import in.bushansirgur.moneymanager.service.DashboardService;
+import in.bushansirgur.moneymanager.service.DataVersionService.DataVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -15,10 +19,13 @@ import java.util.Map;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DataVersionService dataVersionService;
 
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getDashboardData() {
-        Map<String, Object> dashboardData = dashboardService.getDashboardData();
-        return ResponseEntity.ok(dashboardData);
+    public ResponseEntity<Map<String, Object>> getDashboardData(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // One version read: the ETag and the cached payload both come from it
+        DataVersion version = dataVersionService.current();
+        return ConditionalGet.respond(ifNoneMatch, version.etag(), () -> dashboardService.getDashboardData(version));
     }
 }
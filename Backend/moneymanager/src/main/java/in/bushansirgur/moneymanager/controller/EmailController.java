@@ -2,13 +2,13 @@ package in.bushansirgur.moneymanager.controller;
 
 import in.bushansirgur.moneymanager.entity.ProfileEntity;
 import in.bushansirgur.moneymanager.service.*;
+import in.bushansirgur.moneymanager.util.ExportFormat;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
@@ -19,21 +19,19 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class EmailController {
 
-    private final ExcelService excelService;
-    private final IncomeService incomeService;
-    private final ExpenseService expenseService;
+    private final ExportCacheService exportCacheService;
     private final EmailService emailService;
     private final ProfileService profileService;
 
     @GetMapping("/income-excel")
     public ResponseEntity<Map<String, Object>> emailIncomeExcel() throws IOException {
         ProfileEntity profile = profileService.getCurrentProfile();
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        excelService.writeIncomesToExcel(baos, incomeService.getCurrentMonthIncomesForCurrentUser());
+        // Same cached workbook as /excel/download/income
+        byte[] attachment = read(exportCacheService.currentMonth("income", ExportFormat.XLSX));
         emailService.sendEmailWithAttachment(profile.getEmail(),
                 "Your Income Excel Report",
                 "Please find attached your income report",
-                baos.toByteArray(),
+                attachment,
                 "income.xlsx");
         return ResponseEntity.ok(buildSuccessResponse("Income report sent successfully to " + profile.getEmail()));
     }
@@ -41,17 +39,22 @@ public class EmailController {
     @GetMapping("/expense-excel")
     public ResponseEntity<Map<String, Object>> emailExpenseExcel() throws IOException {
         ProfileEntity profile = profileService.getCurrentProfile();
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        excelService.writeExpensesToExcel(baos, expenseService.getCurrentMonthExpensesForCurrentUser());
+        byte[] attachment = read(exportCacheService.currentMonth("expense", ExportFormat.XLSX));
         emailService.sendEmailWithAttachment(
                 profile.getEmail(),
                 "Your Expense Excel Report",
                 "Please find attached your expense report.",
-                baos.toByteArray(),
+                attachment,
                 "expenses.xlsx");
         return ResponseEntity.ok(buildSuccessResponse("Expense report sent successfully to " + profile.getEmail()));
     }
 
+    private static byte[] read(ExportCacheService.CachedExport export) throws IOException {
+        try (export) {
+            return export.readAllBytes();
+        }
+    }
+
     @GetMapping("/test")
     public ResponseEntity<Map<String, Object>> sendTestEmail() {
         ProfileEntity profile = profileService.getCurrentProfile();
@@ -1,44 +1,53 @@
 package in.bushansirgur.moneymanager.controller;
 
-import in.bushansirgur.moneymanager.dto.ExpenseDTO;
-import in.bushansirgur.moneymanager.dto.IncomeDTO;
+import in.bushansirgur.moneymanager.dto.ExportJobDTO;
 import in.bushansirgur.moneymanager.exception.ValidationException;
-import in.bushansirgur.moneymanager.service.ExcelService;
-import in.bushansirgur.moneymanager.service.ExpenseService;
-import in.bushansirgur.moneymanager.service.IncomeService;
+import in.bushansirgur.moneymanager.service.ExcelExportService;
+import in.bushansirgur.moneymanager.service.ExportCacheService;
+import in.bushansirgur.moneymanager.service.ExportJobService;
+import in.bushansirgur.moneymanager.util.ExportFormat;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
 
+// The full report streams from a database cursor (see ExcelExportService); the per-type
+// downloads go through ExportCacheService, since the same month is asked for over and over.
+// Each download comes as xlsx (default), csv or csv.gz, chosen by format= or else by Accept.
 @RestController
 @RequestMapping("/excel")
 @RequiredArgsConstructor
 public class ExcelController {
 
-    private final ExcelService excelService;
-    private final IncomeService incomeService;
-    private final ExpenseService expenseService;
+    private final ExcelExportService excelExportService;
+    private final ExportJobService exportJobService;
+    private final ExportCacheService exportCacheService;
 
     @GetMapping("/download/income")
-    public void downloadIncomeExcel(HttpServletResponse response) throws IOException {
-        List<IncomeDTO> incomes = incomeService.getCurrentMonthIncomesForCurrentUser();
-        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        response.setHeader("Content-Disposition", "attachment; filename=income.xlsx");
-        excelService.writeIncomesToExcel(response.getOutputStream(), incomes);
+    public void downloadIncomeExcel(HttpServletResponse response,
+                                    @RequestParam(required = false) String format,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+        ExportFormat exportFormat = ExportFormat.resolve(format, accept);
+        send(exportCacheService.currentMonth("income", exportFormat), "income", response);
     }
 
     @GetMapping("/download/expense")
-    public void downloadExpenseExcel(HttpServletResponse response) throws IOException {
-        List<ExpenseDTO> expenses = expenseService.getCurrentMonthExpensesForCurrentUser();
-        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        response.setHeader("Content-Disposition", "attachment; filename=expense.xlsx");
-        excelService.writeExpensesToExcel(response.getOutputStream(), expenses);
+    public void downloadExpenseExcel(HttpServletResponse response,
+                                     @RequestParam(required = false) String format,
+                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+        ExportFormat exportFormat = ExportFormat.resolve(format, accept);
+        send(exportCacheService.currentMonth("expense", exportFormat), "expense", response);
     }
 
     @GetMapping("/download/full")
@@ -46,18 +55,51 @@ public class ExcelController {
             HttpServletResponse response,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
-            @RequestParam(required = false, defaultValue = "") String keyword
+            @RequestParam(required = false, defaultValue = "") String keyword,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false, defaultValue = "false") boolean analysis,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) throws IOException {
-        Sort sort = Sort.by(Sort.Direction.DESC, "date");
-        List<IncomeDTO>  incomes  = incomeService.filterIncomes(startDate, endDate, keyword, sort);
-        List<ExpenseDTO> expenses = expenseService.filterExpenses(startDate, endDate, keyword, sort);
+        ExportFormat exportFormat = resolveFullReportFormat(format, accept, analysis);
+        ExcelExportService.Body body = attachment(response, exportFormat, fullReportBasename(startDate, endDate, analysis));
+        if (analysis) {
+            excelExportService.exportFullReportAnalysis(startOrDefault(startDate), endOrDefault(endDate), keyword, body);
+        } else {
+            excelExportService.exportFullReport(startOrDefault(startDate), endOrDefault(endDate), keyword, exportFormat, body);
+        }
+    }
 
-        String from = startDate != null ? startDate.toLocalDate().toString() : "all";
-        String to   = endDate   != null ? endDate.toLocalDate().toString()   : "today";
-        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        response.setHeader("Content-Disposition",
-                "attachment; filename=full_report_" + from + "_to_" + to + ".xlsx");
-        excelService.writeFullReportToExcel(response.getOutputStream(), incomes, expenses);
+    // Same report as /download/full, generated in the background: poll the job, then download it.
+    // Only format= picks the file format here; Accept is about the JSON job description.
+    @PostMapping("/jobs/full")
+    public ResponseEntity<ExportJobDTO> submitFullReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false, defaultValue = "") String keyword,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false, defaultValue = "false") boolean analysis
+    ) {
+        ExportFormat exportFormat = resolveFullReportFormat(format, null, analysis);
+        ExportJobDTO job = exportJobService.submitFullReport(startOrDefault(startDate), endOrDefault(endDate), keyword,
+                exportFormat, analysis, fullReportBasename(startDate, endDate, analysis) + "." + exportFormat.extension());
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath().path("/excel/jobs/{id}").buildAndExpand(job.id()).toUri())
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ExportJobDTO> getExportJob(@PathVariable String id) {
+        return ResponseEntity.ok(exportJobService.getJob(id));
+    }
+
+    // Spring answers Range requests for a Resource body with 206, so interrupted downloads resume
+    @GetMapping("/jobs/{id}/download")
+    public ResponseEntity<Resource> downloadExportJob(@PathVariable String id) {
+        ExportJobService.ExportFile file = exportJobService.getFile(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(file.format().contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + file.filename())
+                .body(new FileSystemResource(file.path()));
     }
 
     @GetMapping("/download/filtered")
@@ -68,7 +110,9 @@ public class ExcelController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(required = false, defaultValue = "") String keyword,
             @RequestParam(required = false, defaultValue = "date") String sortField,
-            @RequestParam(required = false, defaultValue = "desc") String sortOrder
+            @RequestParam(required = false, defaultValue = "desc") String sortOrder,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) throws IOException {
         // FIX: validate sortField before passing to Sort.by() to prevent JPA exceptions
         if (!sortField.equals("date") && !sortField.equals("amount") && !sortField.equals("name")) {
@@ -78,23 +122,61 @@ public class ExcelController {
 
         Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder)
                 ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Sort sort = Sort.by(direction, sortField);
 
         String from = startDate != null ? startDate.toLocalDate().toString() : "all";
         String to   = endDate   != null ? endDate.toLocalDate().toString()   : "today";
+        String resolvedType = "income".equalsIgnoreCase(type) ? "income" : "expense";
+        ExportFormat exportFormat = ExportFormat.resolve(format, accept);
+        send(exportCacheService.transactions(resolvedType, startOrDefault(startDate), endOrDefault(endDate), keyword,
+                sortField, direction, exportFormat), resolvedType + "_filtered_" + from + "_to_" + to, response);
+    }
 
-        if ("income".equalsIgnoreCase(type)) {
-            List<IncomeDTO> incomes = incomeService.filterIncomes(startDate, endDate, keyword, sort);
-            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-            response.setHeader("Content-Disposition",
-                    "attachment; filename=income_filtered_" + from + "_to_" + to + ".xlsx");
-            excelService.writeIncomesToExcel(response.getOutputStream(), incomes);
-        } else {
-            List<ExpenseDTO> expenses = expenseService.filterExpenses(startDate, endDate, keyword, sort);
-            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-            response.setHeader("Content-Disposition",
-                    "attachment; filename=expense_filtered_" + from + "_to_" + to + ".xlsx");
-            excelService.writeExpensesToExcel(response.getOutputStream(), expenses);
+    // Sent from the channel the cache opened, never re-opened by name: the entry may be evicted
+    // or invalidated meanwhile, and Content-Length is the size of exactly these bytes. (Tomcat's
+    // sendfile re-opens the file by name after the servlet returns, so it can't be used here.)
+    private static void send(ExportCacheService.CachedExport export, String basename,
+                             HttpServletResponse response) throws IOException {
+        try (export) {
+            response.setContentType(export.format().contentType());
+            response.setHeader("Content-Disposition", "attachment; filename=" + basename + "." + export.format().extension());
+            response.setContentLengthLong(export.size());
+            export.transferTo(response.getOutputStream());
         }
     }
-}
\ No newline at end of file
+
+    private static String fullReportBasename(LocalDateTime startDate, LocalDateTime endDate, boolean analysis) {
+        String from = startDate != null ? startDate.toLocalDate().toString() : "all";
+        String to   = endDate   != null ? endDate.toLocalDate().toString()   : "today";
+        return (analysis ? "full_analysis_" : "full_report_") + from + "_to_" + to;
+    }
+
+    // analysis=true adds sheets, which only xlsx can hold
+    private static ExportFormat resolveFullReportFormat(String format, String accept, boolean analysis) {
+        if (!analysis) {
+            return ExportFormat.resolve(format, accept);
+        }
+        if (format != null && !format.isBlank() && ExportFormat.resolve(format, null) != ExportFormat.XLSX) {
+            throw new ValidationException("analysis", "The analysis workbook is only available as xlsx");
+        }
+        return ExportFormat.XLSX;
+    }
+
+    // Headers are set only when the first row is ready, so an early failure still gets a JSON error
+    private static ExcelExportService.Body attachment(HttpServletResponse response, ExportFormat format, String basename) {
+        return () -> {
+            response.setContentType(format.contentType());
+            response.setHeader("Content-Disposition", "attachment; filename=" + basename + "." + format.extension());
+            return response.getOutputStream();
+        };
+    }
+
+    // Same open-ended defaults as IncomeService/ExpenseService.filter*
+    private static LocalDateTime startOrDefault(LocalDateTime startDate) {
+        return startDate != null ? startDate : LocalDateTime.of(2000, 1, 1, 0, 0, 0);
+    }
+
+    // Whole days, so an open-ended filtered download keeps hitting the same cache entry
+    private static LocalDateTime endOrDefault(LocalDateTime endDate) {
+        return endDate != null ? endDate : LocalDate.now().plusYears(10).atStartOfDay();
+    }
+}
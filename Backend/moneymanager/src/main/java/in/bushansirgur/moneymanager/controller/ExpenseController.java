@@ -1,12 +1,15 @@
 package in.bushansirgur.moneymanager.controller;
 
 import in.bushansirgur.moneymanager.dto.ExpenseDTO;
+import in.bushansirgur.moneymanager.service.DataVersionService;
 import in.bushansirgur.moneymanager.service.ExpenseService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -15,15 +18,19 @@ import java.util.List;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final DataVersionService dataVersionService;
 
     @PostMapping
     public ResponseEntity<ExpenseDTO> addExpense(@RequestBody ExpenseDTO dto) {
         return ResponseEntity.status(HttpStatus.CREATED).body(expenseService.addExpense(dto));
     }
 
+    // Month-scoped list, so the month is part of the ETag as well as the data version
     @GetMapping
-    public ResponseEntity<List<ExpenseDTO>> getExpenses() {
-        return ResponseEntity.ok(expenseService.getCurrentMonthExpensesForCurrentUser());
+    public ResponseEntity<List<ExpenseDTO>> getExpenses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = dataVersionService.currentETag(YearMonth.now().toString());
+        return ConditionalGet.respond(ifNoneMatch, etag, expenseService::getCurrentMonthExpensesForCurrentUser);
     }
 
     // NEW — edit an existing expense record
@@ -2,35 +2,107 @@ package in.bushansirgur.moneymanager.controller;
 
 import in.bushansirgur.moneymanager.dto.ExpenseDTO;
 import in.bushansirgur.moneymanager.dto.FilterDTO;
+import in.bushansirgur.moneymanager.dto.FilterPageRequest;
 import in.bushansirgur.moneymanager.dto.IncomeDTO;
 import in.bushansirgur.moneymanager.exception.ValidationException;
 import in.bushansirgur.moneymanager.service.ExpenseService;
+import in.bushansirgur.moneymanager.service.FilterStreamService;
 import in.bushansirgur.moneymanager.service.IncomeService;
-import lombok.RequiredArgsConstructor;
+import in.bushansirgur.moneymanager.service.TransactionViewService;
+import in.bushansirgur.moneymanager.util.KeysetCursor;
+import in.bushansirgur.moneymanager.util.KeysetCursorCodec;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
-@RequiredArgsConstructor
 @RequestMapping("/filter")
 public class FilterController {
 
     private final ExpenseService expenseService;
     private final IncomeService incomeService;
+    private final FilterStreamService filterStreamService;
+    private final TransactionViewService transactionViewService;
+    private final KeysetCursorCodec cursorCodec;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public FilterController(ExpenseService expenseService,
+                            IncomeService incomeService,
+                            FilterStreamService filterStreamService,
+                            TransactionViewService transactionViewService,
+                            KeysetCursorCodec cursorCodec,
+                            @Value("${filter.page.default-limit:50}") int defaultPageSize,
+                            @Value("${filter.page.max-limit:500}") int maxPageSize) {
+        this.expenseService = expenseService;
+        this.incomeService = incomeService;
+        this.filterStreamService = filterStreamService;
+        this.transactionViewService = transactionViewService;
+        this.cursorCodec = cursorCodec;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
 
     @PostMapping
     public ResponseEntity<?> filterTransactions(@RequestBody FilterDTO filter) {
+        ResolvedFilter resolved = resolve(filter);
+
+        // Paged mode: only when the client asks for it, so the plain list response stays unchanged
+        if (filter.getLimit() != null || filter.getCursor() != null) {
+            FilterPageRequest page = toPageRequest(filter, resolved);
+            return switch (resolved.type()) {
+                case "income" -> ResponseEntity.ok(incomeService.filterIncomesPage(page));
+                case "expense" -> ResponseEntity.ok(expenseService.filterExpensesPage(page));
+                default -> ResponseEntity.ok(transactionViewService.filterAllPage(page));
+            };
+        }
+
+        if (resolved.isAll()) {
+            // One UNION query, already in the requested order — see TransactionViewRepository
+            return ResponseEntity.ok(transactionViewService.filterAll(resolved.startDate(), resolved.endDate(),
+                    resolved.keyword(), resolved.sortField(), resolved.direction()));
+        }
+        Sort sort = Sort.by(resolved.direction(), resolved.sortField());
+        if (resolved.isIncome()) {
+            List<IncomeDTO> incomes = incomeService.filterIncomes(resolved.startDate(), resolved.endDate(), resolved.keyword(), sort);
+            return ResponseEntity.ok(incomes);
+        } else {
+            List<ExpenseDTO> expenses = expenseService.filterExpenses(resolved.startDate(), resolved.endDate(), resolved.keyword(), sort);
+            return ResponseEntity.ok(expenses);
+        }
+    }
+
+    // Same filter and same JSON array as POST /filter, but rows are written as they come off
+    // the database cursor instead of being collected first — for very large result sets.
+    @PostMapping("/stream")
+    public void streamTransactions(@RequestBody FilterDTO filter, HttpServletResponse response) throws IOException {
+        // Validate everything before the first byte goes out; after that the status is fixed
+        ResolvedFilter resolved = resolve(filter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        filterStreamService.writeFiltered(resolved.type(), resolved.startDate(), resolved.endDate(), resolved.keyword(),
+                resolved.sortField(), resolved.direction(), response.getOutputStream());
+    }
+
+    private ResolvedFilter resolve(FilterDTO filter) {
         // Validate type field
         if (filter.getType() == null || filter.getType().trim().isEmpty()) {
-            throw new ValidationException("type", "Filter type is required. Valid values are: 'income' or 'expense'");
+            throw new ValidationException("type", "Filter type is required. Valid values are: 'income', 'expense' or 'all'");
+        }
+        String type = filter.getType().trim().toLowerCase();
+        if (!type.equals("income") && !type.equals("expense") && !type.equals("all")) {
+            throw new ValidationException("type", "Invalid filter type '" + filter.getType() + "'. Valid values are: 'income', 'expense' or 'all'");
         }
 
         // Preparing the data or validation
@@ -52,16 +124,34 @@ public class FilterController {
         }
 
         Sort.Direction direction = "desc".equalsIgnoreCase(filter.getSortOrder()) ? Sort.Direction.DESC : Sort.Direction.ASC;
-        Sort sort = Sort.by(direction, sortField);
+        return new ResolvedFilter(type, startDate, endDate, keyword, sortField, direction);
+    }
 
-        if ("income".equalsIgnoreCase(filter.getType())) {
-            List<IncomeDTO> incomes = incomeService.filterIncomes(startDate, endDate, keyword, sort);
-            return ResponseEntity.ok(incomes);
-        } else if ("expense".equalsIgnoreCase(filter.getType())) {
-            List<ExpenseDTO> expenses = expenseService.filterExpenses(startDate, endDate, keyword, sort);
-            return ResponseEntity.ok(expenses);
-        } else {
-            throw new ValidationException("type", "Invalid filter type '" + filter.getType() + "'. Valid values are: 'income' or 'expense'");
+    private FilterPageRequest toPageRequest(FilterDTO filter, ResolvedFilter resolved) {
+        int limit = filter.getLimit() != null ? filter.getLimit() : defaultPageSize;
+        if (limit < 1 || limit > maxPageSize) {
+            throw new ValidationException("limit", "Limit must be between 1 and " + maxPageSize);
+        }
+        // Key the cursor to the filter as sent, not with defaults applied: the default endDate is "now"
+        // and would otherwise change between pages
+        String filterKey = KeysetCursorCodec.filterKey(resolved.type(), filter.getStartDate(), filter.getEndDate(),
+                resolved.keyword(), resolved.sortField(), resolved.direction());
+        KeysetCursor after = filter.getCursor() != null && !filter.getCursor().isBlank()
+                ? cursorCodec.decode(filter.getCursor(), resolved.sortField(), filterKey)
+                : null;
+        return new FilterPageRequest(resolved.startDate(), resolved.endDate(), resolved.keyword(),
+                resolved.sortField(), resolved.direction(), after, filterKey, limit);
+    }
+
+    // The request after defaults and validation; type is lower-cased "income", "expense" or "all"
+    private record ResolvedFilter(String type, LocalDateTime startDate, LocalDateTime endDate, String keyword,
+                                  String sortField, Sort.Direction direction) {
+        boolean isIncome() {
+            return type.equals("income");
+        }
+
+        boolean isAll() {
+            return type.equals("all");
         }
     }
 }
@@ -1,12 +1,15 @@
 package in.bushansirgur.moneymanager.controller;
 
 import in.bushansirgur.moneymanager.dto.IncomeDTO;
+import in.bushansirgur.moneymanager.service.DataVersionService;
 import in.bushansirgur.moneymanager.service.IncomeService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -15,15 +18,19 @@ import java.util.List;
 public class IncomeController {
 
     private final IncomeService incomeService;
+    private final DataVersionService dataVersionService;
 
     @PostMapping
     public ResponseEntity<IncomeDTO> addIncome(@RequestBody IncomeDTO dto) {
         return ResponseEntity.status(HttpStatus.CREATED).body(incomeService.addIncome(dto));
     }
 
+    // Month-scoped list, so the month is part of the ETag as well as the data version
     @GetMapping
-    public ResponseEntity<List<IncomeDTO>> getIncomes() {
-        return ResponseEntity.ok(incomeService.getCurrentMonthIncomesForCurrentUser());
+    public ResponseEntity<List<IncomeDTO>> getIncomes(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = dataVersionService.currentETag(YearMonth.now().toString());
+        return ConditionalGet.respond(ifNoneMatch, etag, incomeService::getCurrentMonthIncomesForCurrentUser);
     }
 
     // NEW — edit an existing income record
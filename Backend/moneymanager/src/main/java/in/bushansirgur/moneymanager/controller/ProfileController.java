@@ -3,7 +3,9 @@ package in.bushansirgur.moneymanager.controller;
 import in.bushansirgur.moneymanager.dto.AuthDTO;
 import in.bushansirgur.moneymanager.dto.ProfileDTO;
 import in.bushansirgur.moneymanager.exception.ResourceNotFoundException;
+import in.bushansirgur.moneymanager.security.AuthRateLimiter;
 import in.bushansirgur.moneymanager.service.ProfileService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,9 +20,11 @@ import java.util.Map;
 public class ProfileController {
 
     private final ProfileService profileService;
+    private final AuthRateLimiter authRateLimiter;
 
     @PostMapping("/register")
-    public ResponseEntity<ProfileDTO> registerProfile(@RequestBody ProfileDTO profileDTO) {
+    public ResponseEntity<ProfileDTO> registerProfile(@RequestBody ProfileDTO profileDTO, HttpServletRequest request) {
+        authRateLimiter.check(request, profileDTO.getEmail());
         return ResponseEntity.status(HttpStatus.CREATED).body(profileService.registerProfile(profileDTO));
     }
 
@@ -39,7 +43,9 @@ public class ProfileController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody AuthDTO authDTO) {
+    public ResponseEntity<Map<String, Object>> login(@RequestBody AuthDTO authDTO, HttpServletRequest request) {
+        // Throttle before any BCrypt or DB work — credential stuffing should cost us almost nothing
+        authRateLimiter.check(request, authDTO.getEmail());
         return ResponseEntity.ok(profileService.authenticateAndGenerateToken(authDTO));
     }
 
@@ -60,15 +66,18 @@ public class ProfileController {
 
     @PutMapping("/profile/change-password")
     public ResponseEntity<Map<String, Object>> changePassword(@RequestBody Map<String, String> body) {
-        profileService.changePassword(body.get("oldPassword"), body.get("newPassword"));
+        String token = profileService.changePassword(body.get("oldPassword"), body.get("newPassword"));
         Map<String, Object> response = new LinkedHashMap<>();
         response.put("timestamp", LocalDateTime.now().toString());
         response.put("message", "Password changed successfully");
+        // Older tokens stop working after a password change — the client must switch to this one
+        response.put("token", token);
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/forgot-password")
-    public ResponseEntity<Map<String, Object>> forgotPassword(@RequestBody Map<String, String> body) {
+    public ResponseEntity<Map<String, Object>> forgotPassword(@RequestBody Map<String, String> body, HttpServletRequest request) {
+        authRateLimiter.check(request, body.get("email"));
         profileService.forgotPassword(body.get("email"));
         Map<String, Object> response = new LinkedHashMap<>();
         response.put("timestamp", LocalDateTime.now().toString());
@@ -0,0 +1,11 @@
+package in.bushansirgur.moneymanager.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Everything the dashboard shows, from one query. Totals are zero for a profile that has no
+ * balance row yet (nothing recorded); recent is already ordered newest first.
+ */
+public record DashboardSummary(BigDecimal totalIncome, BigDecimal totalExpense, List<TransactionViewRow> recent) {
+}
@@ -0,0 +1,11 @@
+package in.bushansirgur.moneymanager.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of one background export. status is QUEUED, RUNNING, DONE or FAILED; rows and bytes
+ * are filled in once it is DONE, error only when it FAILED.
+ */
+public record ExportJobDTO(String id, String status, String filename, long rows, long bytes,
+                           LocalDateTime createdAt, LocalDateTime finishedAt, String error) {
+}
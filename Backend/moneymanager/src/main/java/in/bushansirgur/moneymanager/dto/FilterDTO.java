@@ -20,4 +20,8 @@ public class FilterDTO {
     private String keyword;
     private String sortField; //date, amount, name
     private String sortOrder; //asc or desc
+
+    // Keyset pagination — opt-in: when either is present the response is a FilterPageDTO
+    private Integer limit;
+    private String cursor; //nextCursor from the previous page
 }
@@ -0,0 +1,9 @@
+package in.bushansirgur.moneymanager.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of /filter results. nextCursor is null when hasMore is false.
+ */
+public record FilterPageDTO<T>(List<T> items, String nextCursor, boolean hasMore) {
+}
@@ -0,0 +1,20 @@
+package in.bushansirgur.moneymanager.dto;
+
+import in.bushansirgur.moneymanager.util.KeysetCursor;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+
+/**
+ * A validated /filter request in keyset-pagination mode. after is null for the first page;
+ * filterKey (KeysetCursorCodec.filterKey) is what the next page's cursor gets signed with.
+ */
+public record FilterPageRequest(LocalDateTime startDate, LocalDateTime endDate, String keyword,
+                                String sortField, Sort.Direction direction,
+                                KeysetCursor after, String filterKey, int limit) {
+
+    /** Cursor pointing just past the given row. */
+    public KeysetCursor cursorAfter(Object sortValue, long id) {
+        return new KeysetCursor(sortField, sortValue, id);
+    }
+}
@@ -0,0 +1,22 @@
+package in.bushansirgur.moneymanager.dto;
+
+/**
+ * How a /filter keyword is applied to the query: no name predicate at all for a null or empty
+ * keyword, otherwise a LIKE on the name, served by the pg_trgm index (V2__trigram_name_search.sql).
+ */
+public record KeywordMatch(String keyword) {
+
+    private static final KeywordMatch NONE = new KeywordMatch(null);
+
+    public static KeywordMatch none() {
+        return NONE;
+    }
+
+    public static KeywordMatch of(String keyword) {
+        return keyword == null || keyword.isEmpty() ? NONE : new KeywordMatch(keyword);
+    }
+
+    public boolean isNone() {
+        return keyword == null;
+    }
+}
@@ -0,0 +1,10 @@
+package in.bushansirgur.moneymanager.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * SUM(amount) and COUNT(*) of one profile's incomes or expenses, straight from the base table.
+ * Used to verify tbl_profile_balances.
+ */
+public record ProfileTotalsDTO(Long profileId, BigDecimal total, long count) {
+}
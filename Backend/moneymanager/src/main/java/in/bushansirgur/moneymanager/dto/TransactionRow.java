@@ -0,0 +1,12 @@
+package in.bushansirgur.moneymanager.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One income or expense row read straight off a JDBC cursor. Same JSON shape as
+ * IncomeDTO / ExpenseDTO, without an entity or a persistence context behind it.
+ */
+public record TransactionRow(Long id, String name, String icon, String categoryName, Long categoryId,
+                             BigDecimal amount, LocalDateTime date, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,29 @@
+package in.bushansirgur.moneymanager.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One income or expense in a combined list (dashboard recent transactions, /filter with
+ * type "all"), read straight from tbl_incomes / tbl_expenses without loading entities.
+ * type is "income" or "expense".
+ */
+public record TransactionViewRow(String type, Long id, String name, String icon, BigDecimal amount,
+                                 LocalDateTime date, LocalDateTime createdAt, LocalDateTime updatedAt,
+                                 Long categoryId, String categoryName) {
+
+    public static final String INCOME = "income";
+    public static final String EXPENSE = "expense";
+
+    public boolean isIncome() {
+        return INCOME.equals(type);
+    }
+
+    /**
+     * Unique across both tables (ids of the two tables overlap): the tie-breaker for a
+     * combined sort and the id stored in its keyset cursor.
+     */
+    public long rowKey() {
+        return id * 2 + (isIncome() ? 0 : 1);
+    }
+}
@@ -0,0 +1,44 @@
+package in.bushansirgur.moneymanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running totals per profile, kept in step with tbl_incomes / tbl_expenses by the
+ * income and expense services in the same transaction as each write.
+ * Lets the dashboard read totals with a single primary-key lookup instead of SUM()
+ * over every row the profile has ever written.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "tbl_profile_balances")
+public class ProfileBalanceEntity {
+
+    @Id
+    @Column(name = "profile_id")
+    private Long profileId;
+
+    @Column(name = "total_income", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalIncome;
+
+    @Column(name = "total_expense", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalExpense;
+
+    @Column(name = "income_count", nullable = false)
+    private long incomeCount;
+
+    @Column(name = "expense_count", nullable = false)
+    private long expenseCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,28 @@
+package in.bushansirgur.moneymanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Monotonic per-profile counter, bumped in the same transaction as every income, expense or
+ * category write. Read endpoints derive their ETag from it. Kept out of the profile table so
+ * saving a ProfileEntity can never write back a stale version.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "tbl_profile_data_versions")
+public class ProfileDataVersionEntity {
+
+    @Id
+    @Column(name = "profile_id")
+    private Long profileId;
+
+    @Column(nullable = false)
+    private long version;
+}
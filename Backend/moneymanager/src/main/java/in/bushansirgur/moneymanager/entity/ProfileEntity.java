@@ -46,10 +46,18 @@ public class ProfileEntity {
     @Column(name = "reset_password_token_expiry")
     private LocalDateTime resetPasswordTokenExpiry;
 
+    // Embedded in every JWT as the "ver" claim. Bumping it (password change/reset)
+    // invalidates all tokens issued before the bump.
+    @Column(name = "token_version")
+    private Integer tokenVersion;
+
     @PrePersist
     public void prePersist() {
         if (this.isActive == null) {
             isActive = false;
         }
+        if (this.tokenVersion == null) {
+            tokenVersion = 0;
+        }
     }
 }
\ No newline at end of file
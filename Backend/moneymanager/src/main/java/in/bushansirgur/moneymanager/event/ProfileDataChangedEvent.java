@@ -0,0 +1,23 @@
+package in.bushansirgur.moneymanager.event;
+
+/**
+ * Published by the write paths whenever a profile's incomes, expenses or categories change.
+ * Listeners that only care about committed data use @TransactionalEventListener(AFTER_COMMIT).
+ */
+public record ProfileDataChangedEvent(Long profileId, Scope scope) {
+
+    public enum Scope {
+        /** An income or expense row (or the balance aggregate) changed. */
+        TRANSACTIONS,
+        /** A category was created, renamed or deleted. */
+        CATEGORIES
+    }
+
+    public static ProfileDataChangedEvent transactions(Long profileId) {
+        return new ProfileDataChangedEvent(profileId, Scope.TRANSACTIONS);
+    }
+
+    public static ProfileDataChangedEvent categories(Long profileId) {
+        return new ProfileDataChangedEvent(profileId, Scope.CATEGORIES);
+    }
+}
@@ -0,0 +1,13 @@
+package in.bushansirgur.moneymanager.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when a resource exists but isn't in a state that allows the request yet.
+ */
+public class ConflictException extends BaseException {
+
+    public ConflictException(String message, String errorCode) {
+        super(message, HttpStatus.CONFLICT, errorCode);
+    }
+}
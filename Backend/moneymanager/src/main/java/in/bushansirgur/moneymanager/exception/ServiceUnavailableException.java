@@ -0,0 +1,13 @@
+package in.bushansirgur.moneymanager.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when the server is temporarily too busy to handle the request.
+ */
+public class ServiceUnavailableException extends BaseException {
+
+    public ServiceUnavailableException(String message) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_BUSY");
+    }
+}
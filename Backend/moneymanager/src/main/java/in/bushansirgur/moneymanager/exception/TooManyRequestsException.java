@@ -0,0 +1,20 @@
+package in.bushansirgur.moneymanager.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when a client exceeds the allowed request rate.
+ */
+public class TooManyRequestsException extends BaseException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMITED");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,94 @@
+package in.bushansirgur.moneymanager.repository;
+
+import in.bushansirgur.moneymanager.dto.DashboardSummary;
+import in.bushansirgur.moneymanager.dto.TransactionViewRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only dashboard query over plain JDBC. The statement spans three tables and returns
+ * a shape no entity has, so it is mapped straight into records instead of going through JPA.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DashboardQueryRepository {
+
+    static final int RECENT_PER_TYPE = 5;
+
+    // One round-trip: the balance aggregate plus the 5 newest incomes and 5 newest expenses,
+    // merged and ordered by the database. The outer LEFT JOINs from a single dummy row mean
+    // there is always at least one row, even for a profile with no transactions yet.
+    public static final String SUMMARY_SQL = """
+            SELECT COALESCE(b.total_income, 0) AS total_income, COALESCE(b.total_expense, 0) AS total_expense,
+                   r.type, r.id, r.name, r.icon, r.amount, r.date, r.created_at, r.updated_at,
+                   r.category_id, r.category_name
+            FROM (SELECT 1) AS one
+            LEFT JOIN tbl_profile_balances b ON b.profile_id = :profileId
+            LEFT JOIN (
+                (SELECT 'income' AS type, i.id, i.name, i.icon, i.amount, i.date, i.created_at, i.updated_at,
+                        i.category_id, c.name AS category_name
+                 FROM tbl_incomes i
+                 LEFT JOIN tbl_categories c ON c.id = i.category_id
+                 WHERE i.profile_id = :profileId
+                 ORDER BY i.date DESC, i.created_at DESC
+                 LIMIT :perType)
+                UNION ALL
+                (SELECT 'expense' AS type, e.id, e.name, e.icon, e.amount, e.date, e.created_at, e.updated_at,
+                        e.category_id, c.name AS category_name
+                 FROM tbl_expenses e
+                 LEFT JOIN tbl_categories c ON c.id = e.category_id
+                 WHERE e.profile_id = :profileId
+                 ORDER BY e.date DESC, e.created_at DESC
+                 LIMIT :perType)
+            ) AS r ON TRUE
+            ORDER BY r.date DESC NULLS LAST, r.created_at DESC NULLS LAST
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public DashboardSummary findSummary(Long profileId) {
+        return jdbcTemplate.query(SUMMARY_SQL, Map.of("profileId", profileId, "perType", RECENT_PER_TYPE), rs -> {
+            BigDecimal totalIncome = BigDecimal.ZERO;
+            BigDecimal totalExpense = BigDecimal.ZERO;
+            List<TransactionViewRow> recent = new ArrayList<>(RECENT_PER_TYPE * 2);
+            while (rs.next()) {
+                // Totals repeat on every row; any one will do
+                totalIncome = rs.getBigDecimal("total_income");
+                totalExpense = rs.getBigDecimal("total_expense");
+                String type = rs.getString("type");
+                if (type != null) {
+                    recent.add(toRow(type, rs));
+                }
+            }
+            return new DashboardSummary(totalIncome, totalExpense, recent);
+        });
+    }
+
+    private static TransactionViewRow toRow(String type, ResultSet rs) throws SQLException {
+        return new TransactionViewRow(
+                type,
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("icon"),
+                rs.getBigDecimal("amount"),
+                toLocalDateTime(rs.getTimestamp("date")),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")),
+                rs.getObject("category_id", Long.class),
+                rs.getString("category_name"));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
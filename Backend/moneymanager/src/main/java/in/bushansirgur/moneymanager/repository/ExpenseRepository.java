@@ -1,5 +1,7 @@
 package in.bushansirgur.moneymanager.repository;
 
+import in.bushansirgur.moneymanager.dto.ExpenseDTO;
+import in.bushansirgur.moneymanager.dto.ProfileTotalsDTO;
 import in.bushansirgur.moneymanager.entity.ExpenseEntity;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,19 +14,31 @@ import java.util.List;
 
 public interface ExpenseRepository extends JpaRepository<ExpenseEntity, Long> {
 
+    // Read paths select straight into ExpenseDTO: only the columns it needs, no managed entities to
+    // snapshot for dirty checking, and no lazy category proxy to initialise afterwards.
+    String SELECT_DTO = "SELECT new in.bushansirgur.moneymanager.dto.ExpenseDTO(e.id, e.name, e.icon, COALESCE(c.name, 'N/A'), c.id, "
+            + "e.amount, e.date, e.createdAt, e.updatedAt) FROM ExpenseEntity e LEFT JOIN e.category c ";
+
     //select * from tbl_expenses where profile_id = ?1 order by date desc
     List<ExpenseEntity> findByProfileIdOrderByDateDesc(Long profileId);
 
     //select * from tbl_expenses where profile_id = ?1 order by date desc limit 5
-    @Query("SELECT e FROM ExpenseEntity e LEFT JOIN FETCH e.category WHERE e.profile.id = :profileId ORDER BY e.date DESC LIMIT 5")
-    List<ExpenseEntity> findTop5ByProfileIdOrderByDateDesc(@Param("profileId") Long profileId);
+    @Query(SELECT_DTO + "WHERE e.profile.id = :profileId ORDER BY e.date DESC LIMIT 5")
+    List<ExpenseDTO> findTop5ByProfileIdOrderByDateDesc(@Param("profileId") Long profileId);
 
     @Query("SELECT SUM(e.amount) FROM ExpenseEntity e WHERE e.profile.id = :profileId")
     BigDecimal findTotalExpenseByProfileId(@Param("profileId") Long profileId);
 
+    //select count(*) from tbl_expenses where profile_id = ?1
+    long countByProfileId(Long profileId);
+
+    //select profile_id, sum(amount), count(*) from tbl_expenses group by profile_id
+    @Query("SELECT new in.bushansirgur.moneymanager.dto.ProfileTotalsDTO(e.profile.id, COALESCE(SUM(e.amount), 0), COUNT(e)) FROM ExpenseEntity e GROUP BY e.profile.id")
+    List<ProfileTotalsDTO> findTotalsGroupedByProfileId();
+
     //select * from tbl_expenses where profile_id = ?1 and date between ?2 and ?3 and name like %?4%
-    @Query("SELECT e FROM ExpenseEntity e LEFT JOIN FETCH e.category WHERE e.profile.id = :profileId AND e.date BETWEEN :startDate AND :endDate AND LOWER(e.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<ExpenseEntity> findByProfileIdAndDateBetweenAndNameContainingIgnoreCase(
+    @Query(SELECT_DTO + "WHERE e.profile.id = :profileId AND e.date BETWEEN :startDate AND :endDate AND LOWER(e.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    List<ExpenseDTO> findByProfileIdAndDateBetweenAndNameContainingIgnoreCase(
             @Param("profileId") Long profileId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate,
@@ -32,7 +46,13 @@ public interface ExpenseRepository extends JpaRepository<ExpenseEntity, Long> {
             Sort sort
     );
 
-    //select * from tbl_expenses where profile_id = ?1 and date between ?2 and ?3 with category fetch
-    @Query("SELECT e FROM ExpenseEntity e LEFT JOIN FETCH e.category WHERE e.profile.id = :profileId AND e.date BETWEEN :startDate AND :endDate")
-    List<ExpenseEntity> findByProfileIdAndDateBetween(@Param("profileId") Long profileId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    //select * from tbl_expenses where profile_id = ?1 and date between ?2 and ?3 with category name
+    @Query(SELECT_DTO + "WHERE e.profile.id = :profileId AND e.date BETWEEN :startDate AND :endDate")
+    List<ExpenseDTO> findByProfileIdAndDateBetween(@Param("profileId") Long profileId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    //select * from tbl_expenses where profile_id = ?1 and date between ?2 and ?3 (filter without a keyword)
+    @Query(SELECT_DTO + "WHERE e.profile.id = :profileId AND e.date BETWEEN :startDate AND :endDate")
+    List<ExpenseDTO> findByProfileIdAndDateBetween(@Param("profileId") Long profileId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Sort sort);
+
+
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package in.bushansirgur.moneymanager.repository;
 
+import in.bushansirgur.moneymanager.dto.IncomeDTO;
+import in.bushansirgur.moneymanager.dto.ProfileTotalsDTO;
 import in.bushansirgur.moneymanager.entity.IncomeEntity;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,19 +14,31 @@ import java.util.List;
 
 public interface IncomeRepository extends JpaRepository<IncomeEntity, Long> {
 
+    // Read paths select straight into IncomeDTO: only the columns it needs, no managed entities to
+    // snapshot for dirty checking, and no lazy category proxy to initialise afterwards.
+    String SELECT_DTO = "SELECT new in.bushansirgur.moneymanager.dto.IncomeDTO(i.id, i.name, i.icon, COALESCE(c.name, 'N/A'), c.id, "
+            + "i.amount, i.date, i.createdAt, i.updatedAt) FROM IncomeEntity i LEFT JOIN i.category c ";
+
     //select * from tbl_incomes where profile_id = ?1 order by date desc
     List<IncomeEntity> findByProfileIdOrderByDateDesc(Long profileId);
 
     //select * from tbl_incomes where profile_id = ?1 order by date desc limit 5
-    @Query("SELECT i FROM IncomeEntity i LEFT JOIN FETCH i.category WHERE i.profile.id = :profileId ORDER BY i.date DESC LIMIT 5")
-    List<IncomeEntity> findTop5ByProfileIdOrderByDateDesc(@Param("profileId") Long profileId);
+    @Query(SELECT_DTO + "WHERE i.profile.id = :profileId ORDER BY i.date DESC LIMIT 5")
+    List<IncomeDTO> findTop5ByProfileIdOrderByDateDesc(@Param("profileId") Long profileId);
 
     @Query("SELECT SUM(i.amount) FROM IncomeEntity i WHERE i.profile.id = :profileId")
     BigDecimal findTotalIncomeByProfileId(@Param("profileId") Long profileId);
 
+    //select count(*) from tbl_incomes where profile_id = ?1
+    long countByProfileId(Long profileId);
+
+    //select profile_id, sum(amount), count(*) from tbl_incomes group by profile_id
+    @Query("SELECT new in.bushansirgur.moneymanager.dto.ProfileTotalsDTO(i.profile.id, COALESCE(SUM(i.amount), 0), COUNT(i)) FROM IncomeEntity i GROUP BY i.profile.id")
+    List<ProfileTotalsDTO> findTotalsGroupedByProfileId();
+
     //select * from tbl_incomes where profile_id = ?1 and date between ?2 and ?3 and name like %?4%
-    @Query("SELECT i FROM IncomeEntity i LEFT JOIN FETCH i.category WHERE i.profile.id = :profileId AND i.date BETWEEN :startDate AND :endDate AND LOWER(i.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<IncomeEntity> findByProfileIdAndDateBetweenAndNameContainingIgnoreCase(
+    @Query(SELECT_DTO + "WHERE i.profile.id = :profileId AND i.date BETWEEN :startDate AND :endDate AND LOWER(i.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    List<IncomeDTO> findByProfileIdAndDateBetweenAndNameContainingIgnoreCase(
             @Param("profileId") Long profileId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate,
@@ -32,7 +46,13 @@ public interface IncomeRepository extends JpaRepository<IncomeEntity, Long> {
             Sort sort
     );
 
-    //select * from tbl_incomes where profile_id = ?1 and date between ?2 and ?3 with category fetch
-    @Query("SELECT i FROM IncomeEntity i LEFT JOIN FETCH i.category WHERE i.profile.id = :profileId AND i.date BETWEEN :startDate AND :endDate")
-    List<IncomeEntity> findByProfileIdAndDateBetween(@Param("profileId") Long profileId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    //select * from tbl_incomes where profile_id = ?1 and date between ?2 and ?3 with category name
+    @Query(SELECT_DTO + "WHERE i.profile.id = :profileId AND i.date BETWEEN :startDate AND :endDate")
+    List<IncomeDTO> findByProfileIdAndDateBetween(@Param("profileId") Long profileId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    //select * from tbl_incomes where profile_id = ?1 and date between ?2 and ?3 (filter without a keyword)
+    @Query(SELECT_DTO + "WHERE i.profile.id = :profileId AND i.date BETWEEN :startDate AND :endDate")
+    List<IncomeDTO> findByProfileIdAndDateBetween(@Param("profileId") Long profileId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Sort sort);
+
+
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package in.bushansirgur.moneymanager.repository;
+
+import in.bushansirgur.moneymanager.entity.ProfileBalanceEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface ProfileBalanceRepository extends JpaRepository<ProfileBalanceEntity, Long> {
+
+    // In-place increments: the database applies the delta atomically, so concurrent writes for
+    // the same profile never lose an update. A profile with no row yet gets one holding just this
+    // delta, which is its whole history: existing profiles were backfilled when the table was created.
+    //insert into tbl_profile_balances ... on conflict (profile_id) do update set total_income = total_income + delta
+    @Modifying
+    @Query(value = "INSERT INTO tbl_profile_balances (profile_id, total_income, total_expense, income_count, expense_count, updated_at) " +
+            "VALUES (:profileId, :amount, 0, :count, 0, :now) ON CONFLICT (profile_id) DO UPDATE SET " +
+            "total_income = tbl_profile_balances.total_income + EXCLUDED.total_income, " +
+            "income_count = tbl_profile_balances.income_count + EXCLUDED.income_count, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int addIncome(@Param("profileId") Long profileId, @Param("amount") BigDecimal amount, @Param("count") long count, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "INSERT INTO tbl_profile_balances (profile_id, total_income, total_expense, income_count, expense_count, updated_at) " +
+            "VALUES (:profileId, 0, :amount, 0, :count, :now) ON CONFLICT (profile_id) DO UPDATE SET " +
+            "total_expense = tbl_profile_balances.total_expense + EXCLUDED.total_expense, " +
+            "expense_count = tbl_profile_balances.expense_count + EXCLUDED.expense_count, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int addExpense(@Param("profileId") Long profileId, @Param("amount") BigDecimal amount, @Param("count") long count, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,22 @@
+package in.bushansirgur.moneymanager.repository;
+
+import in.bushansirgur.moneymanager.entity.ProfileDataVersionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ProfileDataVersionRepository extends JpaRepository<ProfileDataVersionEntity, Long> {
+
+    //insert ... on conflict do update — creates the row on a profile's first write, increments it afterwards
+    @Modifying
+    @Query(value = "INSERT INTO tbl_profile_data_versions (profile_id, version) VALUES (:profileId, 1) " +
+            "ON CONFLICT (profile_id) DO UPDATE SET version = tbl_profile_data_versions.version + 1",
+            nativeQuery = true)
+    int increment(@Param("profileId") Long profileId);
+
+    @Query("SELECT v.version FROM ProfileDataVersionEntity v WHERE v.profileId = :profileId")
+    Optional<Long> findVersionByProfileId(@Param("profileId") Long profileId);
+}
@@ -0,0 +1,75 @@
+package in.bushansirgur.moneymanager.repository;
+
+import in.bushansirgur.moneymanager.dto.KeywordMatch;
+import in.bushansirgur.moneymanager.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keyset ("seek") pagination over tbl_incomes / tbl_expenses for /filter.
+ *
+ * Instead of OFFSET, each page continues strictly after the previous page's last
+ * (sortField, id) pair, so with an index on (profile_id, sortField, id) every page costs
+ * the same no matter how deep the client has scrolled. id is the tie-breaker that keeps
+ * the order total when several rows share a date, amount or name.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionPageRepository {
+
+    // Interpolated into JPQL, so only these literal names are ever accepted
+    private static final Set<String> SORT_FIELDS = Set.of("date", "amount", "name");
+
+    private final EntityManager entityManager;
+
+    /**
+     * Returns up to limit + 1 rows; the extra row only tells the caller another page exists.
+     * entityClass is IncomeEntity or ExpenseEntity (same field names) and rowClass the matching
+     * DTO, built by constructor projection.
+     */
+    public <T> List<T> findPage(Class<?> entityClass, Class<T> rowClass, Long profileId, LocalDateTime startDate, LocalDateTime endDate,
+                                KeywordMatch keyword, String sortField, Sort.Direction direction,
+                                KeysetCursor after, int limit) {
+        if (!SORT_FIELDS.contains(sortField)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        }
+        String cmp = direction.isAscending() ? ">" : "<";
+        String dir = direction.isAscending() ? "ASC" : "DESC";
+
+        StringBuilder jpql = new StringBuilder()
+                .append("SELECT new ").append(rowClass.getName())
+                .append("(x.id, x.name, x.icon, COALESCE(c.name, 'N/A'), c.id, x.amount, x.date, x.createdAt, x.updatedAt) ")
+                .append("FROM ").append(entityClass.getSimpleName()).append(" x LEFT JOIN x.category c ")
+                .append("WHERE x.profile.id = :profileId AND x.date BETWEEN :startDate AND :endDate");
+        // No name predicate for an empty keyword: '%%' matches everything but still costs a LIKE per row
+        if (!keyword.isNone()) {
+            jpql.append(" AND LOWER(x.name) LIKE LOWER(CONCAT('%', :keyword, '%'))");
+        }
+        if (after != null) {
+            jpql.append(" AND (x.").append(sortField).append(' ').append(cmp).append(" :afterValue")
+                    .append(" OR (x.").append(sortField).append(" = :afterValue AND x.id ").append(cmp).append(" :afterId))");
+        }
+        jpql.append(" ORDER BY x.").append(sortField).append(' ').append(dir).append(", x.id ").append(dir);
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), rowClass)
+                .setParameter("profileId", profileId)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .setMaxResults(limit + 1);
+        if (!keyword.isNone()) {
+            query.setParameter("keyword", keyword.keyword());
+        }
+        if (after != null) {
+            query.setParameter("afterValue", after.value());
+            query.setParameter("afterId", after.id());
+        }
+        return query.getResultList();
+    }
+}
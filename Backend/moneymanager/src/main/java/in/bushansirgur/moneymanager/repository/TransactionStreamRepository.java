@@ -0,0 +1,85 @@
+package in.bushansirgur.moneymanager.repository;
+
+import in.bushansirgur.moneymanager.dto.TransactionRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only, read-only cursor over one profile's incomes or expenses.
+ *
+ * Rows are handed to the consumer one at a time and never collected. PostgreSQL only
+ * honours the fetch size (i.e. uses a server-side cursor instead of buffering the whole
+ * result) when autocommit is off, so callers must run inside a transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionStreamRepository {
+
+    // Table and sort column are interpolated, so both come from these fixed maps only
+    private static final Map<String, String> TABLES = Map.of("income", "tbl_incomes", "expense", "tbl_expenses");
+    private static final Map<String, String> SORT_COLUMNS = Map.of("date", "date", "amount", "amount", "name", "name");
+
+    private static final String SQL = """
+            SELECT t.id, t.name, t.icon, t.amount, t.date, t.created_at, t.updated_at, t.category_id, c.name AS category_name
+            FROM %s t
+            LEFT JOIN tbl_categories c ON c.id = t.category_id
+            WHERE t.profile_id = ? AND t.date BETWEEN ? AND ?%s
+            ORDER BY t.%s %s, t.id %s
+            """;
+
+    // Served by the pg_trgm index from V2__trigram_name_search.sql; left out for an empty keyword
+    private static final String NAME_PREDICATE = "\n  AND LOWER(t.name) LIKE LOWER('%' || ? || '%')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void forEachRow(String type, Long profileId, LocalDateTime startDate, LocalDateTime endDate, String keyword,
+                           String sortField, Sort.Direction direction, int fetchSize, Consumer<TransactionRow> consumer) {
+        String table = TABLES.get(type);
+        String column = SORT_COLUMNS.get(sortField);
+        if (table == null || column == null) {
+            throw new IllegalArgumentException("Unsupported type/sort: " + type + "/" + sortField);
+        }
+        String dir = direction.isAscending() ? "ASC" : "DESC";
+        boolean byName = keyword != null && !keyword.isEmpty();
+        String sql = SQL.formatted(table, byName ? NAME_PREDICATE : "", column, dir, dir);
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, profileId);
+            statement.setTimestamp(2, Timestamp.valueOf(startDate));
+            statement.setTimestamp(3, Timestamp.valueOf(endDate));
+            if (byName) {
+                statement.setString(4, keyword);
+            }
+            return statement;
+        }, (ResultSet rs) -> consumer.accept(toRow(rs)));
+    }
+
+    private static TransactionRow toRow(ResultSet rs) throws SQLException {
+        return new TransactionRow(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("icon"),
+                rs.getString("category_name") != null ? rs.getString("category_name") : "N/A",
+                rs.getObject("category_id", Long.class),
+                rs.getBigDecimal("amount"),
+                toLocalDateTime(rs.getTimestamp("date")),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
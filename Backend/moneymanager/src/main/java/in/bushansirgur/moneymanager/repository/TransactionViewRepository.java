@@ -0,0 +1,136 @@
+package in.bushansirgur.moneymanager.repository;
+
+import in.bushansirgur.moneymanager.dto.KeywordMatch;
+import in.bushansirgur.moneymanager.dto.TransactionViewRow;
+import in.bushansirgur.moneymanager.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Incomes and expenses as one list (/filter with type "all"): a single UNION ALL statement,
+ * filtered, ordered and limited by the database, so the merged rows are never sorted in Java.
+ *
+ * Ids of the two tables overlap, so the tie-breaker is row_key = id * 2 (+1 for expenses),
+ * the same value as TransactionViewRow.rowKey(). Keyset cursors seek on (sort column, row_key);
+ * PostgreSQL pushes that predicate into both branches, where the (profile_id, column, id)
+ * indexes serve it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionViewRepository {
+
+    // Interpolated into SQL, so only these literal names are ever accepted
+    private static final Map<String, String> SORT_COLUMNS = Map.of("date", "date", "amount", "amount", "name", "name");
+
+    private static final String BRANCH = """
+            SELECT '%1$s' AS type, t.id, t.id * 2 + %2$d AS row_key, t.name, t.icon, t.amount, t.date,
+                   t.created_at, t.updated_at, t.category_id, COALESCE(c.name, 'N/A') AS category_name
+            FROM %3$s t
+            LEFT JOIN tbl_categories c ON c.id = t.category_id
+            WHERE t.profile_id = :profileId AND t.date BETWEEN :startDate AND :endDate%4$s
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Rows in (sortField, row_key) order. With a cursor, only rows strictly after it; with a
+     * limit, at most that many (callers ask for one extra to detect another page). A null
+     * limit returns every match.
+     */
+    public List<TransactionViewRow> findRows(Long profileId, LocalDateTime startDate, LocalDateTime endDate,
+                                             KeywordMatch keyword,
+                                             String sortField, Sort.Direction direction,
+                                             KeysetCursor after, Integer limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = buildSql(params, profileId, startDate, endDate, keyword, sortField, direction, after, limit);
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> toRow(rs));
+    }
+
+    /**
+     * Same statement without cursor or limit, handed to the consumer row by row with the given
+     * fetch size. As with TransactionStreamRepository, the caller must hold a transaction for
+     * PostgreSQL to use a server-side cursor.
+     */
+    public void forEachRow(Long profileId, LocalDateTime startDate, LocalDateTime endDate,
+                           KeywordMatch keyword,
+                           String sortField, Sort.Direction direction, int fetchSize,
+                           Consumer<TransactionViewRow> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = buildSql(params, profileId, startDate, endDate, keyword, sortField, direction, null, null);
+        NamedParameterJdbcTemplate streaming = new NamedParameterJdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streaming.getJdbcTemplate().setFetchSize(fetchSize);
+        streaming.query(sql, params, (RowCallbackHandler) rs -> consumer.accept(toRow(rs)));
+    }
+
+    private static String buildSql(MapSqlParameterSource params, Long profileId, LocalDateTime startDate, LocalDateTime endDate,
+                                   KeywordMatch keyword,
+                                   String sortField, Sort.Direction direction, KeysetCursor after, Integer limit) {
+        String column = SORT_COLUMNS.get(sortField);
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        }
+        String cmp = direction.isAscending() ? ">" : "<";
+        String dir = direction.isAscending() ? "ASC" : "DESC";
+
+        params.addValue("profileId", profileId)
+                .addValue("startDate", Timestamp.valueOf(startDate))
+                .addValue("endDate", Timestamp.valueOf(endDate));
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM (\n")
+                .append(BRANCH.formatted(TransactionViewRow.INCOME, 0, "tbl_incomes", namePredicate(keyword, params)))
+                .append("UNION ALL\n")
+                .append(BRANCH.formatted(TransactionViewRow.EXPENSE, 1, "tbl_expenses", namePredicate(keyword, params)))
+                .append(") u");
+        if (after != null) {
+            sql.append("\nWHERE (u.").append(column).append(' ').append(cmp).append(" :afterValue")
+                    .append(" OR (u.").append(column).append(" = :afterValue AND u.row_key ").append(cmp).append(" :afterKey))");
+            params.addValue("afterValue", after.value() instanceof LocalDateTime date ? Timestamp.valueOf(date) : after.value())
+                    .addValue("afterKey", after.id());
+        }
+        sql.append("\nORDER BY u.").append(column).append(' ').append(dir).append(", u.row_key ").append(dir);
+        if (limit != null) {
+            sql.append("\nLIMIT :limit");
+            params.addValue("limit", limit);
+        }
+        return sql.toString();
+    }
+
+    // Same two shapes as the single-type queries: nothing, or a LIKE (trigram index) in both branches
+    private static String namePredicate(KeywordMatch keyword, MapSqlParameterSource params) {
+        if (keyword.isNone()) {
+            return "";
+        }
+        params.addValue("keyword", keyword.keyword());
+        return "\n  AND LOWER(t.name) LIKE LOWER('%' || :keyword || '%')";
+    }
+
+    private static TransactionViewRow toRow(ResultSet rs) throws SQLException {
+        return new TransactionViewRow(
+                rs.getString("type"),
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("icon"),
+                rs.getBigDecimal("amount"),
+                toLocalDateTime(rs.getTimestamp("date")),
+                toLocalDateTime(rs.getTimestamp("created_at")),
+                toLocalDateTime(rs.getTimestamp("updated_at")),
+                rs.getObject("category_id", Long.class),
+                rs.getString("category_name"));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
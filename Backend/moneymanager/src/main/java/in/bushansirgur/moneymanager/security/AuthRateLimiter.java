@@ -0,0 +1,148 @@
+package in.bushansirgur.moneymanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import in.bushansirgur.moneymanager.exception.TooManyRequestsException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket throttle for the unauthenticated, expensive endpoints
+ * (/login, /register, /forgot-password). Each call costs one token from the
+ * client IP's bucket and one from the normalized email's bucket; when either is
+ * empty the request is rejected with 429 before any BCrypt, DB or email work.
+ *
+ * Buckets live in a Caffeine cache bounded by max-buckets, so a flood of distinct keys
+ * can't grow it: buckets nobody has touched for idle-minutes expire, and past the bound
+ * the least useful ones are evicted (frequently hit keys, like an attacker's, stay). Each
+ * bucket's whole state is one AtomicLong updated by CAS, so a check never locks.
+ */
+@Component
+public class AuthRateLimiter {
+
+    // Bucket state = [ refill timestamp (millis since epochMillis) : 40 bits | milli-tokens : 24 bits ].
+    // 40 bits of millis last ~34 years of uptime; 24 bits of milli-tokens hold MAX_CAPACITY tokens.
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+    static final int MAX_CAPACITY = (int) (TOKEN_MASK / MILLI);
+    // Keeps the refill arithmetic below within a long
+    static final int MAX_PER_MINUTE = 1_000_000;
+
+    private final Policy ipPolicy;
+    private final Policy emailPolicy;
+    private final long epochMillis = System.currentTimeMillis();
+
+    private final Cache<String, AtomicLong> buckets;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    // The one Spring uses; the other takes a fake clock for tests
+    @Autowired
+    public AuthRateLimiter(@Value("${security.rate-limit.ip.capacity:20}") int ipCapacity,
+                           @Value("${security.rate-limit.ip.per-minute:20}") int ipPerMinute,
+                           @Value("${security.rate-limit.email.capacity:5}") int emailCapacity,
+                           @Value("${security.rate-limit.email.per-minute:5}") int emailPerMinute,
+                           @Value("${security.rate-limit.idle-minutes:10}") long idleMinutes,
+                           @Value("${security.rate-limit.max-buckets:100000}") int maxBuckets) {
+        this(ipCapacity, ipPerMinute, emailCapacity, emailPerMinute, idleMinutes, maxBuckets, Ticker.systemTicker());
+    }
+
+    AuthRateLimiter(int ipCapacity, int ipPerMinute, int emailCapacity, int emailPerMinute,
+                    long idleMinutes, int maxBuckets, Ticker ticker) {
+        this.ipPolicy = new Policy(ipCapacity, ipPerMinute);
+        this.emailPolicy = new Policy(emailCapacity, emailPerMinute);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Consumes one token for the caller's IP and, when present, one for the email.
+     * Throws {@link TooManyRequestsException} when either bucket is empty.
+     */
+    public void check(HttpServletRequest request, String email) {
+        long now = System.currentTimeMillis();
+        if (!tryConsume("ip:" + request.getRemoteAddr(), ipPolicy, now)) {
+            reject(ipPolicy);
+        }
+        if (email != null && !email.isBlank()
+                && !tryConsume("email:" + email.toLowerCase().trim(), emailPolicy, now)) {
+            reject(emailPolicy);
+        }
+        allowed.increment();
+    }
+
+    boolean tryConsume(String key, Policy policy, long nowMillis) {
+        long now = nowMillis - epochMillis;
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(pack(now, policy.capacityMilli())));
+        while (true) {
+            long state = bucket.get();
+            long last = state >>> TOKEN_BITS;
+            long tokens = state & TOKEN_MASK;
+            // Any longer and the bucket is full anyway, even at one token a minute
+            long elapsed = Math.min(Math.max(0, now - last), policy.capacity() * 60_000L);
+            long gained = elapsed * policy.perMinute() * MILLI / 60_000;
+            long refilled = Math.min(policy.capacityMilli(), tokens + gained);
+            // Keep the old timestamp while less than one milli-token has accrued, so slow rates still refill
+            long stamp = gained > 0 ? now : last;
+            if (refilled < MILLI) {
+                if (stamp != last && !bucket.compareAndSet(state, pack(stamp, refilled))) {
+                    continue;
+                }
+                return false;
+            }
+            if (bucket.compareAndSet(state, pack(stamp, refilled - MILLI))) {
+                return true;
+            }
+        }
+    }
+
+    // Caffeine expires lazily, as part of other cache activity; this keeps stats() honest when idle
+    @Scheduled(fixedDelayString = "${security.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        buckets.cleanUp();
+    }
+
+    public Stats stats() {
+        return new Stats(allowed.sum(), rejected.sum(), buckets.estimatedSize());
+    }
+
+    private void reject(Policy policy) {
+        rejected.increment();
+        long retryAfter = Math.max(1, 60 / Math.max(1, policy.perMinute()));
+        throw new TooManyRequestsException(
+                "Too many attempts. Please wait " + retryAfter + " seconds and try again.", retryAfter);
+    }
+
+    private static long pack(long timestamp, long milliTokens) {
+        return (timestamp << TOKEN_BITS) | milliTokens;
+    }
+
+    record Policy(int capacity, int perMinute) {
+        Policy {
+            if (capacity < 1 || capacity > MAX_CAPACITY) {
+                throw new IllegalArgumentException("Rate-limit capacity must be between 1 and " + MAX_CAPACITY + ", was " + capacity);
+            }
+            if (perMinute < 1 || perMinute > MAX_PER_MINUTE) {
+                throw new IllegalArgumentException("Rate-limit per-minute must be between 1 and " + MAX_PER_MINUTE + ", was " + perMinute);
+            }
+        }
+
+        long capacityMilli() {
+            return capacity * MILLI;
+        }
+    }
+
+    public record Stats(long allowed, long rejected, long buckets) {}
+}
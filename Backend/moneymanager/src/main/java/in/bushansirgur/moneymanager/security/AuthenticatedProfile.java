@@ -0,0 +1,16 @@
+package in.bushansirgur.moneymanager.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal placed in the SecurityContext by {@link JwtRequestFilter}.
+ * Built purely from verified JWT claims — no database round-trip per request.
+ * getName() returns the email so Authentication.getName() keeps working unchanged.
+ */
+public record AuthenticatedProfile(Long profileId, String email, int tokenVersion) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,91 @@
+package in.bushansirgur.moneymanager.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the BCrypt cost for this machine at startup.
+ *
+ * Each extra cost step doubles hashing time, so a fixed cost is either too weak on a
+ * big instance or blows the login latency budget on a small one. This measures one
+ * hash per candidate cost, starting at min-strength, and keeps the highest cost whose
+ * measured time fits security.password-hash.budget-ms. It stops as soon as the next
+ * step would clearly exceed the budget, so startup only pays for the costs it tries.
+ *
+ * security.password-hash.strength > 0 skips calibration and pins the cost.
+ */
+@Component
+@Slf4j
+public class BCryptCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private final long budgetMillis;
+    private final int minStrength;
+    private final int maxStrength;
+    private final int fixedStrength;
+
+    private volatile int strength;
+    private volatile long measuredMillis;
+
+    public BCryptCostCalibrator(@Value("${security.password-hash.budget-ms:250}") long budgetMillis,
+                                @Value("${security.password-hash.min-strength:10}") int minStrength,
+                                @Value("${security.password-hash.max-strength:14}") int maxStrength,
+                                @Value("${security.password-hash.strength:0}") int fixedStrength) {
+        this.budgetMillis = budgetMillis;
+        this.minStrength = minStrength;
+        this.maxStrength = Math.max(minStrength, maxStrength);
+        this.fixedStrength = fixedStrength;
+    }
+
+    public synchronized int calibrate() {
+        if (strength > 0) {
+            return strength;
+        }
+        if (fixedStrength > 0) {
+            strength = fixedStrength;
+            measuredMillis = time(fixedStrength);
+            log.info("BCrypt cost pinned to {} ({} ms per hash)", strength, measuredMillis);
+            return strength;
+        }
+
+        time(minStrength); // JIT warm-up, not measured
+        int chosen = minStrength;
+        long chosenMillis = time(minStrength);
+        while (chosen < maxStrength && chosenMillis * 2 <= budgetMillis) {
+            long next = time(chosen + 1);
+            if (next > budgetMillis) {
+                break;
+            }
+            chosen++;
+            chosenMillis = next;
+        }
+
+        if (chosenMillis > budgetMillis) {
+            // Never go below the floor — a slow box gets slow logins rather than weak hashes
+            log.warn("BCrypt cost {} takes {} ms, above the {} ms budget; keeping the minimum cost",
+                    chosen, chosenMillis, budgetMillis);
+        }
+        strength = chosen;
+        measuredMillis = chosenMillis;
+        log.info("BCrypt cost calibrated to {} ({} ms per hash, budget {} ms)", strength, measuredMillis, budgetMillis);
+        return strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public long getMeasuredMillis() {
+        return measuredMillis;
+    }
+
+    private static long time(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
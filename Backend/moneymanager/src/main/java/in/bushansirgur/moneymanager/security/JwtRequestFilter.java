@@ -1,7 +1,6 @@
 package in.bushansirgur.moneymanager.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import in.bushansirgur.moneymanager.util.JwtUtil;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -15,15 +14,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -31,15 +28,14 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class JwtRequestFilter extends OncePerRequestFilter {
 
-    private final UserDetailsService userDetailsService;
-    private final JwtUtil jwtUtil;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        String email = null;
-        String jwt = null;
+        VerifiedToken verifiedToken = null;
 
         // Skip JWT validation for public endpoints
         String requestPath = request.getRequestURI();
@@ -50,7 +46,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         try {
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                jwt = authHeader.substring(7);
+                String jwt = authHeader.substring(7);
 
                 // Check if token is empty or just whitespace
                 if (jwt.trim().isEmpty()) {
@@ -58,24 +54,38 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                email = jwtUtil.extractUsername(jwt);
+                // Single parse: signature and expiry are checked here, once per request —
+                // or not at all when this exact token was already verified recently.
+                // Everything below works off the verified claims, never the raw token.
+                verifiedToken = verifiedTokenCache.verify(jwt);
             } else if (authHeader != null && !authHeader.startsWith("Bearer ")) {
                 sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "Invalid Authorization header format. Expected 'Bearer <token>'", "AUTH_TOKEN_INVALID");
                 return;
             }
 
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
-                if (jwtUtil.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                } else {
-                    sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "JWT token validation failed. Token may be expired or invalid.", "AUTH_TOKEN_INVALID");
+            if (verifiedToken != null && verifiedToken.subject() != null
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Tokens issued before profile id / version claims existed cannot be trusted
+                // without a DB lookup — ask the client to login once more instead.
+                if (verifiedToken.profileId() == null || verifiedToken.tokenVersion() == null) {
+                    sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "Authentication token is outdated. Please login again to get a new token.", "AUTH_TOKEN_INVALID");
                     return;
                 }
+                // Cache lookup in the common case; reads the profile row at most once per jwt.version-cache.ttl-seconds
+                // or after a password change / deactivation evicted it.
+                if (!tokenVersionRegistry.isCurrent(verifiedToken.profileId(), verifiedToken.tokenVersion())) {
+                    sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "Authentication token has been revoked. Please login again to get a new token.", "AUTH_TOKEN_INVALID");
+                    return;
+                }
+
+                AuthenticatedProfile principal = new AuthenticatedProfile(
+                        verifiedToken.profileId(), verifiedToken.subject(), verifiedToken.tokenVersion());
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal, null, Collections.emptyList()
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verifiedToken);
             }
 
             filterChain.doFilter(request, response);
@@ -90,8 +100,6 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "JWT token format is not supported.", "AUTH_TOKEN_INVALID");
         } catch (IllegalArgumentException e) {
             sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "JWT token is invalid: " + e.getMessage(), "AUTH_TOKEN_INVALID");
-        } catch (UsernameNotFoundException e) {
-            sendErrorResponse(response, HttpStatus.UNAUTHORIZED, "User not found for the provided token. Account may have been deleted.", "AUTH_TOKEN_INVALID");
         }
     }
 
@@ -0,0 +1,84 @@
+package in.bushansirgur.moneymanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import in.bushansirgur.moneymanager.entity.ProfileEntity;
+import in.bushansirgur.moneymanager.repository.ProfileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Short-lived, bounded view of each profile's current token version (the "ver" claim).
+ *
+ * The version itself lives on the profile row (profile.token_version), so it survives
+ * restarts and is shared by every instance. Anything that must kill existing tokens
+ * (password change/reset, deactivation) bumps it in the database and calls {@link #update}
+ * or {@link #evict}, which takes effect at once on this instance. Other instances hold a
+ * profile's version for at most jwt.version-cache.ttl-seconds before reading the row again,
+ * so that is how long a revoked token can still be accepted elsewhere.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    // Stored for profiles that exist but are not active — never matches a real token version
+    private static final int INACTIVE = -1;
+
+    private final ProfileRepository profileRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final Cache<Long, Integer> versions;
+
+    // The one Spring uses; the other takes a fake clock for tests
+    @Autowired
+    public TokenVersionRegistry(ProfileRepository profileRepository,
+                                VerifiedTokenCache verifiedTokenCache,
+                                @Value("${jwt.version-cache.max-size:100000}") long maxSize,
+                                @Value("${jwt.version-cache.ttl-seconds:30}") long ttlSeconds) {
+        this(profileRepository, verifiedTokenCache, maxSize, ttlSeconds, Ticker.systemTicker());
+    }
+
+    TokenVersionRegistry(ProfileRepository profileRepository, VerifiedTokenCache verifiedTokenCache,
+                         long maxSize, long ttlSeconds, Ticker ticker) {
+        this.profileRepository = profileRepository;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .ticker(ticker)
+                .build();
+    }
+
+    public boolean isCurrent(Long profileId, int tokenVersion) {
+        // A null load is not stored, so a deleted profile is looked up again next time
+        Integer current = versions.get(profileId, this::loadVersion);
+        return current != null && current == tokenVersion;
+    }
+
+    public void update(Long profileId, int tokenVersion) {
+        versions.put(profileId, tokenVersion);
+        verifiedTokenCache.evictProfile(profileId);
+    }
+
+    public void evict(Long profileId) {
+        versions.invalidate(profileId);
+        verifiedTokenCache.evictProfile(profileId);
+    }
+
+    public static int versionOf(ProfileEntity profile) {
+        return profile.getTokenVersion() != null ? profile.getTokenVersion() : 0;
+    }
+
+    long size() {
+        versions.cleanUp();
+        return versions.estimatedSize();
+    }
+
+    private Integer loadVersion(Long profileId) {
+        return profileRepository.findById(profileId)
+                .map(profile -> Boolean.TRUE.equals(profile.getIsActive()) ? versionOf(profile) : INACTIVE)
+                .orElse(null);
+    }
+}
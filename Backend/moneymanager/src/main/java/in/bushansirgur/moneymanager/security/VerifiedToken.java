@@ -0,0 +1,32 @@
+package in.bushansirgur.moneymanager.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Result of a single signature + expiry check on a JWT.
+ * Built once per request by {@link in.bushansirgur.moneymanager.util.JwtUtil#verify(String)}
+ * and stored on the request so nothing downstream has to parse the token again.
+ */
+public record VerifiedToken(String subject, Long profileId, Integer tokenVersion,
+                            Date issuedAt, Date expiresAt, Claims claims) {
+
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    public static final String CLAIM_PROFILE_ID = "pid";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
+    public static VerifiedToken from(Claims claims) {
+        // jjwt hands numeric claims back as Integer or Long depending on size
+        Number profileId = claims.get(CLAIM_PROFILE_ID, Number.class);
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return new VerifiedToken(
+                claims.getSubject(),
+                profileId != null ? profileId.longValue() : null,
+                tokenVersion != null ? tokenVersion.intValue() : null,
+                claims.getIssuedAt(),
+                claims.getExpiration(),
+                claims);
+    }
+}
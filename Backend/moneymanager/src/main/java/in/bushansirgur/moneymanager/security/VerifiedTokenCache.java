@@ -0,0 +1,118 @@
+package in.bushansirgur.moneymanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import in.bushansirgur.moneymanager.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already-verified JWTs, sitting in front of {@link JwtUtil#verify(String)}.
+ *
+ * The frontend sends the same token on every call for up to jwt.expiration.hours, so
+ * after the first request the HMAC check and JSON parsing are skipped entirely.
+ *
+ * - Keys are SHA-256 digests of the token, the raw token is never kept in memory.
+ * - An entry lives until the earlier of the token's own expiry and jwt.cache.ttl-minutes.
+ * - At most jwt.cache.max-size entries; Caffeine evicts the ones least likely to be used again.
+ * - Only successfully verified tokens are cached — failures always re-run the full check.
+ *
+ * Caching verification does not bypass revocation: JwtRequestFilter still checks the
+ * token version on every request. evict()/evictProfile() drop entries early when a
+ * token or a whole profile is revoked.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, VerifiedToken> entries;
+
+    // The one Spring uses; the other takes a fake clock for tests
+    @Autowired
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize,
+                              @Value("${jwt.cache.ttl-minutes:30}") long ttlMinutes) {
+        this(jwtUtil, maxSize, ttlMinutes, Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(JwtUtil jwtUtil, long maxSize, long ttlMinutes, Ticker ticker) {
+        this.jwtUtil = jwtUtil;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(Duration.ofMinutes(ttlMinutes).toNanos()))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the verified claims for this token, verifying the signature only on a cache miss.
+     * Throws the same jjwt exceptions as {@link JwtUtil#verify(String)} when the token is bad;
+     * nothing is cached then.
+     */
+    public VerifiedToken verify(String token) {
+        return entries.get(digest(token), key -> jwtUtil.verify(token));
+    }
+
+    public void evict(String token) {
+        entries.invalidate(digest(token));
+    }
+
+    /** Drops every cached token that belongs to this profile (password change, reset, deactivation). */
+    public void evictProfile(Long profileId) {
+        entries.asMap().values().removeIf(verified -> profileId.equals(verified.profileId()));
+    }
+
+    public Stats stats() {
+        // Expired entries are dropped lazily; count them before reporting
+        entries.cleanUp();
+        CacheStats stats = entries.stats();
+        return new Stats(stats.hitCount(), stats.missCount(), stats.evictionCount(), entries.estimatedSize());
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to ship SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // An entry lives for the ttl or until the token itself expires, whichever comes first
+    private record UntilTokenExpiry(long ttlNanos) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            if (token.expiresAt() == null) {
+                return ttlNanos;
+            }
+            long untilExpiry = TimeUnit.MILLISECONDS.toNanos(token.expiresAt().getTime() - System.currentTimeMillis());
+            return Math.max(0, Math.min(ttlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public record Stats(long hits, long misses, long evictions, long size) {}
+}
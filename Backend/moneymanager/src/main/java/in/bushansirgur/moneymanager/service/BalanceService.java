@@ -0,0 +1,140 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.dto.ProfileTotalsDTO;
+import in.bushansirgur.moneymanager.entity.ProfileBalanceEntity;
+import in.bushansirgur.moneymanager.event.ProfileDataChangedEvent;
+import in.bushansirgur.moneymanager.repository.ExpenseRepository;
+import in.bushansirgur.moneymanager.repository.IncomeRepository;
+import in.bushansirgur.moneymanager.repository.ProfileBalanceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains tbl_profile_balances — per-profile income/expense totals and row counts.
+ *
+ * Writers call recordIncomeChange / recordExpenseChange inside their own transaction, so the
+ * aggregate commits or rolls back together with the row it describes. Each delta is an upsert:
+ * a profile's first write creates its row, so no delta is ever dropped and reads never write.
+ * Readers (the dashboard summary) treat a missing row as zero totals.
+ *
+ * verifyAndRepairAll() recomputes everything from the base tables on a schedule and fixes
+ * any drift (e.g. rows changed outside the application). A repair locks the profile's row
+ * before recounting, so it can't overwrite a delta committed meanwhile.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceService {
+
+    private final ProfileBalanceRepository balanceRepository;
+    private final IncomeRepository incomeRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordIncomeChange(Long profileId, BigDecimal amountDelta, long countDelta) {
+        balanceRepository.addIncome(profileId, orZero(amountDelta), countDelta, LocalDateTime.now());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpenseChange(Long profileId, BigDecimal amountDelta, long countDelta) {
+        balanceRepository.addExpense(profileId, orZero(amountDelta), countDelta, LocalDateTime.now());
+    }
+
+    /**
+     * Compares every stored aggregate with a fresh GROUP BY over the base tables and repairs
+     * the ones that differ. Returns how many rows were corrected.
+     *
+     * The GROUP BY only picks candidates: its totals can miss a write that commits while it
+     * runs. Each candidate's row is then locked and recounted — a concurrent write either
+     * committed before the lock was granted (and is in the recount) or applies its delta after
+     * this transaction commits. Writers elsewhere are only held up by the rows being repaired.
+     */
+    @Scheduled(cron = "${balance.verify.cron:0 30 3 * * *}")
+    @Transactional
+    public int verifyAndRepairAll() {
+        Map<Long, ProfileTotalsDTO> incomes = byProfile(incomeRepository.findTotalsGroupedByProfileId());
+        Map<Long, ProfileTotalsDTO> expenses = byProfile(expenseRepository.findTotalsGroupedByProfileId());
+
+        int repaired = 0;
+        for (ProfileBalanceEntity candidate : balanceRepository.findAll()) {
+            if (matches(candidate, incomes.get(candidate.getProfileId()), expenses.get(candidate.getProfileId()))) {
+                continue;
+            }
+            ProfileBalanceEntity balance = lock(candidate);
+            String stored = describe(balance);
+            if (recount(balance)) {
+                log.warn("Balance drift for profile {}: stored {}; actual {}", balance.getProfileId(), stored, describe(balance));
+                repaired++;
+            }
+        }
+        if (repaired > 0) {
+            log.warn("Balance verification repaired {} profile aggregates", repaired);
+        }
+        return repaired;
+    }
+
+    // SELECT ... FOR UPDATE, reloading the row: the copy in hand may predate deltas committed since.
+    // Held until commit, so a write's delta either is already in the recount or waits until after it.
+    private ProfileBalanceEntity lock(ProfileBalanceEntity balance) {
+        entityManager.refresh(balance, LockModeType.PESSIMISTIC_WRITE);
+        return balance;
+    }
+
+    // Call with the row locked. Returns whether anything changed.
+    private boolean recount(ProfileBalanceEntity balance) {
+        Long profileId = balance.getProfileId();
+        BigDecimal totalIncome = orZero(incomeRepository.findTotalIncomeByProfileId(profileId));
+        BigDecimal totalExpense = orZero(expenseRepository.findTotalExpenseByProfileId(profileId));
+        long incomeCount = incomeRepository.countByProfileId(profileId);
+        long expenseCount = expenseRepository.countByProfileId(profileId);
+        if (totalIncome.compareTo(balance.getTotalIncome()) == 0
+                && totalExpense.compareTo(balance.getTotalExpense()) == 0
+                && incomeCount == balance.getIncomeCount()
+                && expenseCount == balance.getExpenseCount()) {
+            return false;
+        }
+        balance.setTotalIncome(totalIncome);
+        balance.setTotalExpense(totalExpense);
+        balance.setIncomeCount(incomeCount);
+        balance.setExpenseCount(expenseCount);
+        balance.setUpdatedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(ProfileDataChangedEvent.transactions(profileId));
+        return true;
+    }
+
+    private static boolean matches(ProfileBalanceEntity balance, ProfileTotalsDTO income, ProfileTotalsDTO expense) {
+        return (income != null ? orZero(income.total()) : BigDecimal.ZERO).compareTo(balance.getTotalIncome()) == 0
+                && (expense != null ? orZero(expense.total()) : BigDecimal.ZERO).compareTo(balance.getTotalExpense()) == 0
+                && (income != null ? income.count() : 0) == balance.getIncomeCount()
+                && (expense != null ? expense.count() : 0) == balance.getExpenseCount();
+    }
+
+    private static String describe(ProfileBalanceEntity balance) {
+        return "income=" + balance.getTotalIncome() + " (" + balance.getIncomeCount() + "), expense="
+                + balance.getTotalExpense() + " (" + balance.getExpenseCount() + ")";
+    }
+
+    private static Map<Long, ProfileTotalsDTO> byProfile(List<ProfileTotalsDTO> totals) {
+        return totals.stream().collect(Collectors.toMap(ProfileTotalsDTO::profileId, Function.identity()));
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -3,11 +3,14 @@ package in.bushansirgur.moneymanager.service;
 import in.bushansirgur.moneymanager.dto.CategoryDTO;
 import in.bushansirgur.moneymanager.entity.CategoryEntity;
 import in.bushansirgur.moneymanager.entity.ProfileEntity;
+import in.bushansirgur.moneymanager.event.ProfileDataChangedEvent;
 import in.bushansirgur.moneymanager.exception.DuplicateResourceException;
 import in.bushansirgur.moneymanager.exception.ResourceNotFoundException;
 import in.bushansirgur.moneymanager.exception.ValidationException;
 import in.bushansirgur.moneymanager.repository.CategoryRepository;
+import in.bushansirgur.moneymanager.service.DataVersionService.DataVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,10 +23,12 @@ public class CategoryService {
 
     private final ProfileService profileService;
     private final CategoryRepository categoryRepository;
+    private final ProfileDataCache profileDataCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public CategoryDTO saveCategory(CategoryDTO categoryDTO) {
-        ProfileEntity profile = profileService.getCurrentProfile();
+        Long profileId = profileService.getCurrentProfileId();
 
         if (categoryDTO.getName() == null || categoryDTO.getName().trim().isEmpty())
             throw new ValidationException("name", "Category name is required");
@@ -35,24 +40,26 @@ public class CategoryService {
             throw new ValidationException("type",
                     "Invalid category type '" + categoryDTO.getType() + "'. Valid types are: INCOME, EXPENSE");
 
-        if (categoryRepository.existsByNameAndProfileId(categoryDTO.getName(), profile.getId()))
+        if (categoryRepository.existsByNameAndProfileId(categoryDTO.getName(), profileId))
             throw new DuplicateResourceException("Category", "name", categoryDTO.getName());
 
-        CategoryEntity newCategory = toEntity(categoryDTO, profile);
+        CategoryEntity newCategory = toEntity(categoryDTO, profileService.getCurrentProfileReference());
         newCategory = categoryRepository.save(newCategory);
+        eventPublisher.publishEvent(ProfileDataChangedEvent.categories(profileId));
         return toDTO(newCategory);
     }
 
+    /** version is the current profile's, as read for the response's ETag; the cached list is keyed by it. */
     @Transactional(readOnly = true)
-    public List<CategoryDTO> getCategoriesForCurrentUser() {
-        ProfileEntity profile = profileService.getCurrentProfile();
-        List<CategoryEntity> categories = categoryRepository.findByProfileId(profile.getId());
-        return categories.stream().map(this::toDTO).toList();
+    public List<CategoryDTO> getCategoriesForCurrentUser(DataVersion version) {
+        Long profileId = version.profileId();
+        return profileDataCache.categories(version, ProfileDataCache.ALL_TYPES, () ->
+                categoryRepository.findByProfileId(profileId).stream().map(this::toDTO).toList());
     }
 
     @Transactional(readOnly = true)
-    public List<CategoryDTO> getCategoriesByTypeForCurrentUser(String type) {
-        ProfileEntity profile = profileService.getCurrentProfile();
+    public List<CategoryDTO> getCategoriesByTypeForCurrentUser(String type, DataVersion version) {
+        Long profileId = version.profileId();
 
         if (type == null || type.trim().isEmpty())
             throw new ValidationException("type", "Category type parameter is required");
@@ -62,21 +69,21 @@ public class CategoryService {
             throw new ValidationException("type",
                     "Invalid category type '" + type + "'. Valid types are: INCOME, EXPENSE");
 
-        List<CategoryEntity> entities = categoryRepository.findByTypeAndProfileId(upperType, profile.getId());
-        return entities.stream().map(this::toDTO).toList();
+        return profileDataCache.categories(version, upperType, () ->
+                categoryRepository.findByTypeAndProfileId(upperType, profileId).stream().map(this::toDTO).toList());
     }
 
     @Transactional
     public CategoryDTO updateCategory(Long categoryId, CategoryDTO dto) {
-        ProfileEntity profile = profileService.getCurrentProfile();
-        CategoryEntity existing = categoryRepository.findByIdAndProfileId(categoryId, profile.getId())
+        Long profileId = profileService.getCurrentProfileId();
+        CategoryEntity existing = categoryRepository.findByIdAndProfileId(categoryId, profileId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", categoryId));
 
         if (dto.getName() != null && dto.getName().trim().isEmpty())
             throw new ValidationException("name", "Category name cannot be empty");
 
         if (dto.getName() != null && !dto.getName().equals(existing.getName())) {
-            if (categoryRepository.existsByNameAndProfileId(dto.getName(), profile.getId()))
+            if (categoryRepository.existsByNameAndProfileId(dto.getName(), profileId))
                 throw new DuplicateResourceException("Category", "name", dto.getName());
         }
 
@@ -84,6 +91,7 @@ public class CategoryService {
         if (dto.getIcon() != null) existing.setIcon(dto.getIcon());
 
         existing = categoryRepository.save(existing);
+        eventPublisher.publishEvent(ProfileDataChangedEvent.categories(profileId));
         return toDTO(existing);
     }
 
@@ -93,12 +101,13 @@ public class CategoryService {
      */
     @Transactional
     public void deleteCategory(Long categoryId) {
-        ProfileEntity profile = profileService.getCurrentProfile();
-        CategoryEntity existing = categoryRepository.findByIdAndProfileId(categoryId, profile.getId())
+        Long profileId = profileService.getCurrentProfileId();
+        CategoryEntity existing = categoryRepository.findByIdAndProfileId(categoryId, profileId)
                 .orElseThrow(() -> new ResourceNotFoundException("Category", categoryId));
 
         try {
             categoryRepository.delete(existing);
+            eventPublisher.publishEvent(ProfileDataChangedEvent.categories(profileId));
         } catch (DataIntegrityViolationException e) {
             throw new ValidationException("categoryId",
                     "Cannot delete category '" + existing.getName()
@@ -0,0 +1,43 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.entity.ProfileEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the current user's ProfileEntity for the lifetime of one HTTP request.
+ *
+ * ProfileService.getCurrentProfile() is called from several services while serving
+ * a single request (and each call used to be its own query). The first call loads
+ * the profile, every later call in the same request gets the same instance back,
+ * regardless of which service or transaction asks.
+ *
+ * The instance is detached once the loading transaction ends — read it freely,
+ * but write changes through profileRepository.save() and hand the result to replace().
+ */
+@Component
+@RequestScope
+public class CurrentProfileHolder {
+
+    private ProfileEntity profile;
+    private int lookupCount;
+
+    public ProfileEntity getOrLoad(Supplier<ProfileEntity> loader) {
+        if (profile == null) {
+            profile = loader.get();
+            lookupCount++;
+        }
+        return profile;
+    }
+
+    public void replace(ProfileEntity updated) {
+        this.profile = updated;
+    }
+
+    /** Number of times the loader actually ran in this request — tests assert this is at most 1. */
+    public int getLookupCount() {
+        return lookupCount;
+    }
+}
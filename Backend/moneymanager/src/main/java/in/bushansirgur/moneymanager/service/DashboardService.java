@@ -1,80 +1,180 @@
 package in.bushansirgur.moneymanager.service;
 
+import in.bushansirgur.moneymanager.dto.DashboardSummary;
 import in.bushansirgur.moneymanager.dto.ExpenseDTO;
 import in.bushansirgur.moneymanager.dto.IncomeDTO;
 import in.bushansirgur.moneymanager.dto.RecentTransactionDTO;
-import in.bushansirgur.moneymanager.entity.ProfileEntity;
-import lombok.RequiredArgsConstructor;
+import in.bushansirgur.moneymanager.dto.TransactionViewRow;
+import in.bushansirgur.moneymanager.exception.ServiceUnavailableException;
+import in.bushansirgur.moneymanager.repository.DashboardQueryRepository;
+import in.bushansirgur.moneymanager.service.DataVersionService.DataVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-
-import static java.util.stream.Stream.concat;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
+/**
+ * Builds the dashboard from a single database round-trip: DashboardQueryRepository returns
+ * the balance totals and the merged, already-ordered recent transactions in one statement,
+ * projected into records without loading any entity.
+ *
+ * The load runs in one transaction whose timeout is the per-request deadline
+ * (dashboard.deadline-ms, rounded up to whole seconds as JDBC query timeouts are). Spring
+ * hands what is left of it to every statement as its query timeout, so a statement that
+ * overruns is cancelled by the database itself, its pooled connection is freed, and the
+ * request fails with a 503. The finished payload is cached per profile and data version in
+ * ProfileDataCache.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class DashboardService {
 
-    private final IncomeService incomeService;
-    private final ExpenseService expenseService;
-    private final ProfileService profileService;
+    private static final String QUERY_CANCELED = "57014";
 
-    public Map<String, Object> getDashboardData() {
-        ProfileEntity profile = profileService.getCurrentProfile();
-        Map<String, Object> returnValue = new LinkedHashMap<>();
+    private final DashboardQueryRepository dashboardQueryRepository;
+    private final ProfileDataCache profileDataCache;
+    private final long deadlineMillis;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAccumulator maxLoadNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder deadlineExceeded = new LongAdder();
+
+    public DashboardService(DashboardQueryRepository dashboardQueryRepository,
+                            ProfileDataCache profileDataCache,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${dashboard.deadline-ms:3000}") long deadlineMillis) {
+        this.dashboardQueryRepository = dashboardQueryRepository;
+        this.profileDataCache = profileDataCache;
+        this.deadlineMillis = deadlineMillis;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout((int) Math.max(1, (deadlineMillis + 999) / 1000));
+    }
+
+    /** version is the one the caller's ETag was built from; the cached payload is keyed by it. */
+    public Map<String, Object> getDashboardData(DataVersion version) {
+        Long profileId = version.profileId();
+        // Served from cache until an income, expense or category of this profile changes
+        return profileDataCache.dashboard(version, () -> timed(profileId, () -> withinDeadline(() -> loadDashboard(profileId))));
+    }
 
-        List<IncomeDTO> latestIncomes = incomeService.getLatest5IncomesForCurrentUser();
-        List<ExpenseDTO> latestExpenses = expenseService.getLatest5ExpensesForCurrentUser();
-
-        BigDecimal totalIncome = incomeService.getTotalIncomeForCurrentUser();
-        BigDecimal totalExpense = expenseService.getTotalExpenseForCurrentUser();
-
-        List<RecentTransactionDTO> recentTransactions = concat(
-                latestIncomes.stream().map(income ->
-                        RecentTransactionDTO.builder()
-                                .id(income.getId())
-                                .profileId(profile.getId())
-                                .icon(income.getIcon())
-                                .name(income.getName())
-                                .amount(income.getAmount())
-                                .date(income.getDate())
-                                .createdAt(income.getCreatedAt())
-                                .updatedAt(income.getUpdatedAt())
-                                .type("income")
-                                .build()),
-                latestExpenses.stream().map(expense ->
-                        RecentTransactionDTO.builder()
-                                .id(expense.getId())
-                                .profileId(profile.getId())
-                                .icon(expense.getIcon())
-                                .name(expense.getName())
-                                .amount(expense.getAmount())
-                                .date(expense.getDate())
-                                .createdAt(expense.getCreatedAt())
-                                .updatedAt(expense.getUpdatedAt())
-                                .type("expense")
-                                .build()))
-                .sorted((a, b) -> {
-                    if (a.getDate() == null) return 1;
-                    if (b.getDate() == null) return -1;
-                    int cmp = b.getDate().compareTo(a.getDate());
-                    if (cmp == 0 && a.getCreatedAt() != null && b.getCreatedAt() != null) {
-                        return b.getCreatedAt().compareTo(a.getCreatedAt());
-                    }
-                    return cmp;
-                })
-                .collect(Collectors.toList());
+    private Map<String, Object> loadDashboard(Long profileId) {
+        DashboardSummary summary = dashboardQueryRepository.findSummary(profileId);
+        BigDecimal totalIncome = summary.totalIncome();
+        BigDecimal totalExpense = summary.totalExpense();
 
+        List<TransactionViewRow> recent = summary.recent();
+        Map<String, Object> returnValue = new LinkedHashMap<>();
         returnValue.put("totalBalance", totalIncome.subtract(totalExpense));
         returnValue.put("totalIncome", totalIncome);
         returnValue.put("totalExpense", totalExpense);
-        returnValue.put("recent5Expenses", latestExpenses);
-        returnValue.put("recent5Incomes", latestIncomes);
-        returnValue.put("recentTransactions", recentTransactions);
-        return returnValue;
+        // Rows arrive newest first, so the per-type lists keep the same order
+        returnValue.put("recent5Expenses", recent.stream().filter(row -> !row.isIncome()).map(DashboardService::toExpenseDTO).toList());
+        returnValue.put("recent5Incomes", recent.stream().filter(TransactionViewRow::isIncome).map(DashboardService::toIncomeDTO).toList());
+        returnValue.put("recentTransactions", recent.stream().map(row -> toRecentTransactionDTO(row, profileId)).toList());
+        // The same instance is handed to every cache hit
+        return Collections.unmodifiableMap(returnValue);
+    }
+
+    /** Latency of the loads behind cache misses, in microseconds, since startup; failed loads included. */
+    public Stats stats() {
+        long count = loads.sum();
+        return new Stats(count,
+                count > 0 ? TimeUnit.NANOSECONDS.toMicros(loadNanos.sum() / count) : 0,
+                TimeUnit.NANOSECONDS.toMicros(maxLoadNanos.get()),
+                deadlineExceeded.sum());
+    }
+
+    private <T> T withinDeadline(Supplier<T> work) {
+        try {
+            return transactionTemplate.execute(status -> work.get());
+        } catch (TransactionTimedOutException | QueryTimeoutException e) {
+            throw deadlineExceeded(e);
+        } catch (DataAccessException e) {
+            // PostgreSQL reports a cancelled statement as SQLState 57014, which Spring doesn't map to a timeout
+            if (e.getMostSpecificCause() instanceof SQLException sql && QUERY_CANCELED.equals(sql.getSQLState())) {
+                throw deadlineExceeded(e);
+            }
+            throw e;
+        }
     }
-}
\ No newline at end of file
+
+    private ServiceUnavailableException deadlineExceeded(Exception cause) {
+        deadlineExceeded.increment();
+        log.warn("Dashboard load missed the {} ms deadline: {}", deadlineMillis, cause.getMessage());
+        return new ServiceUnavailableException("Dashboard is taking too long to load. Please try again in a few seconds.");
+    }
+
+    private <T> T timed(Long profileId, Supplier<T> load) {
+        long startedAt = System.nanoTime();
+        try {
+            return load.get();
+        } finally {
+            long elapsed = System.nanoTime() - startedAt;
+            loads.increment();
+            loadNanos.add(elapsed);
+            maxLoadNanos.accumulate(elapsed);
+            log.debug("Dashboard load for profile {} took {} µs", profileId, TimeUnit.NANOSECONDS.toMicros(elapsed));
+        }
+    }
+
+    private static IncomeDTO toIncomeDTO(TransactionViewRow row) {
+        return IncomeDTO.builder()
+                .id(row.id())
+                .name(row.name())
+                .icon(row.icon())
+                .categoryId(row.categoryId())
+                .categoryName(row.categoryName() != null ? row.categoryName() : "N/A")
+                .amount(row.amount())
+                .date(row.date())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .build();
+    }
+
+    private static ExpenseDTO toExpenseDTO(TransactionViewRow row) {
+        return ExpenseDTO.builder()
+                .id(row.id())
+                .name(row.name())
+                .icon(row.icon())
+                .categoryId(row.categoryId())
+                .categoryName(row.categoryName() != null ? row.categoryName() : "N/A")
+                .amount(row.amount())
+                .date(row.date())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .build();
+    }
+
+    private static RecentTransactionDTO toRecentTransactionDTO(TransactionViewRow row, Long profileId) {
+        return RecentTransactionDTO.builder()
+                .id(row.id())
+                .profileId(profileId)
+                .icon(row.icon())
+                .name(row.name())
+                .amount(row.amount())
+                .date(row.date())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .type(row.type())
+                .build();
+    }
+
+    public record Stats(long loads, long avgMicros, long maxMicros, long deadlineExceeded) {}
+}
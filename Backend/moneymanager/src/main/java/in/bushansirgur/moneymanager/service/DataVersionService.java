@@ -0,0 +1,65 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.event.ProfileDataChangedEvent;
+import in.bushansirgur.moneymanager.repository.ProfileDataVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Per-profile data version used for conditional GETs.
+ *
+ * Every ProfileDataChangedEvent (income, expense and category writes, balance repairs) bumps
+ * the version inside the writing transaction, so version and data commit together. Read
+ * endpoints fetch the version BEFORE building their payload: a write racing the read can
+ * then only make the ETag older than the data, which costs a 200 later, never a stale 304.
+ *
+ * Cached payloads (ProfileDataCache) are keyed by the same DataVersion the ETag came from, so
+ * a body cached under one version can never be served under a later one.
+ */
+@Service
+@RequiredArgsConstructor
+public class DataVersionService {
+
+    private final ProfileDataVersionRepository dataVersionRepository;
+    private final ProfileService profileService;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProfileDataChanged(ProfileDataChangedEvent event) {
+        dataVersionRepository.increment(event.profileId());
+    }
+
+    /** 0 until the profile's first write. */
+    @Transactional(readOnly = true)
+    public long currentVersion(Long profileId) {
+        return dataVersionRepository.findVersionByProfileId(profileId).orElse(0L);
+    }
+
+    /** The current profile's version, read once per request for both the ETag and the cache key. */
+    public DataVersion current() {
+        Long profileId = profileService.getCurrentProfileId();
+        return new DataVersion(profileId, currentVersion(profileId));
+    }
+
+    public String currentETag(String... qualifiers) {
+        return current().etag(qualifiers);
+    }
+
+    public record DataVersion(Long profileId, long version) {
+
+        /**
+         * Strong ETag for this version. The profile id is part of it so two accounts sharing a
+         * browser never match each other's cached copy; qualifiers cover anything else the
+         * payload depends on (e.g. the current month for month-scoped lists).
+         */
+        public String etag(String... qualifiers) {
+            StringBuilder etag = new StringBuilder("\"p").append(profileId).append("-v").append(version);
+            for (String qualifier : qualifiers) {
+                etag.append('-').append(qualifier);
+            }
+            return etag.append('"').toString();
+        }
+    }
+}
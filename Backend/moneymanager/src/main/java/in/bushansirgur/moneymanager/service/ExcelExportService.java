@@ -0,0 +1,205 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.dto.KeywordMatch;
+import in.bushansirgur.moneymanager.dto.TransactionRow;
+import in.bushansirgur.moneymanager.dto.TransactionViewRow;
+import in.bushansirgur.moneymanager.repository.TransactionStreamRepository;
+import in.bushansirgur.moneymanager.repository.TransactionViewRepository;
+import in.bushansirgur.moneymanager.util.ExportFormat;
+import in.bushansirgur.moneymanager.util.SheetWriter;
+import in.bushansirgur.moneymanager.util.XlsxStreamWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * /excel downloads straight from a database cursor: each fetched row becomes a sheet row and
+ * leaves through the format's SheetWriter (XLSX, CSV or gzipped CSV, same columns in each),
+ * inside one read-only transaction (needed for PostgreSQL to
+ * keep the cursor server-side). Heap use doesn't depend on the export size.
+ *
+ * Backpressure comes from the blocking servlet stream: while a slow client drains the socket,
+ * the write blocks and the next batch isn't fetched. If the client disconnects, the write
+ * fails, the cursor is closed and the transaction rolled back, which ends the query.
+ *
+ * The body is opened lazily, when the first row arrives (or the query returns none), so a
+ * query that fails up front still reaches GlobalExceptionHandler as a normal JSON error.
+ */
+@Service
+public class ExcelExportService {
+
+    // e.g. "03 Apr 2026"
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd MMM yyyy");
+
+    static final String[] TRANSACTION_HEADERS = {"S.No", "Name", "Category", "Amount", "Date"};
+    static final String[] FULL_REPORT_HEADERS = {"S.No", "Type", "Name", "Category", "Amount", "Date"};
+
+    /** Where the file goes; typically sets the response headers and returns its stream. */
+    @FunctionalInterface
+    public interface Body {
+        OutputStream open() throws IOException;
+    }
+
+    /** One complete export into the given stream, returning the rows written (job and cache spools). */
+    @FunctionalInterface
+    public interface Export {
+        long writeTo(OutputStream out) throws IOException;
+    }
+
+    private final TransactionStreamRepository transactionStreamRepository;
+    private final TransactionViewRepository transactionViewRepository;
+    private final ProfileService profileService;
+    private final int fetchSize;
+
+    public ExcelExportService(TransactionStreamRepository transactionStreamRepository,
+                              TransactionViewRepository transactionViewRepository,
+                              ProfileService profileService,
+                              @Value("${excel.export.fetch-size:500}") int fetchSize) {
+        this.transactionStreamRepository = transactionStreamRepository;
+        this.transactionViewRepository = transactionViewRepository;
+        this.profileService = profileService;
+        this.fetchSize = fetchSize;
+    }
+
+    /** One sheet of incomes or expenses (type "income" / "expense"). Returns the data rows written. */
+    @Transactional(readOnly = true)
+    public long exportTransactions(String type, LocalDateTime startDate, LocalDateTime endDate, String keyword,
+                                   String sortField, Sort.Direction direction,
+                                   ExportFormat format, Body body) throws IOException {
+        Long profileId = profileService.getCurrentProfileId();
+        String sheetName = type.equals("income") ? "Incomes" : "Expenses";
+        SheetSink<SheetWriter> sink = new SheetSink<>(body, out -> format.open(out, sheetName, TRANSACTION_HEADERS));
+        return sink.run(() -> transactionStreamRepository.forEachRow(type, profileId, startDate, endDate, keyword,
+                sortField, direction, fetchSize, (TransactionRow row) -> sink.append(
+                        nameOrNa(row.name()), nameOrNa(row.categoryName()), amountOrZero(row.amount()),
+                        formatDate(row.date()))));
+    }
+
+    /** Incomes and expenses in one "All Transactions" sheet, newest first, merged by the database. */
+    @Transactional(readOnly = true)
+    public long exportFullReport(LocalDateTime startDate, LocalDateTime endDate, String keyword,
+                                 ExportFormat format, Body body) throws IOException {
+        return writeFullReport(profileService.getCurrentProfileId(), startDate, endDate, keyword, format, body);
+    }
+
+    /** The same report for a given profile, for callers with no signed-in user (the daily report email). */
+    @Transactional(readOnly = true)
+    public long exportFullReportFor(Long profileId, LocalDateTime startDate, LocalDateTime endDate,
+                                    ExportFormat format, Body body) throws IOException {
+        return writeFullReport(profileId, startDate, endDate, null, format, body);
+    }
+
+    private long writeFullReport(Long profileId, LocalDateTime startDate, LocalDateTime endDate, String keyword,
+                                 ExportFormat format, Body body) throws IOException {
+        SheetSink<SheetWriter> sink = new SheetSink<>(body, out -> format.open(out, "All Transactions", FULL_REPORT_HEADERS));
+        return sink.run(() -> transactionViewRepository.forEachRow(profileId, startDate, endDate, KeywordMatch.of(keyword),
+                "date", Sort.Direction.DESC, fetchSize, (TransactionViewRow row) -> appendFullReportRow(sink, row)));
+    }
+
+    /**
+     * The full report plus Summary, By Category and By Month sheets (xlsx only). The totals are
+     * accumulated by the same cursor pass that writes the transaction rows, so this costs no
+     * extra query and no memory per row; the three sheets are written after the last row.
+     */
+    @Transactional(readOnly = true)
+    public long exportFullReportAnalysis(LocalDateTime startDate, LocalDateTime endDate, String keyword,
+                                         Body body) throws IOException {
+        Long profileId = profileService.getCurrentProfileId();
+        FullReportAnalysis analysis = new FullReportAnalysis();
+        SheetSink<XlsxStreamWriter> sink = new SheetSink<>(body,
+                out -> new XlsxStreamWriter(out, FullReportAnalysis.SHEETS, FULL_REPORT_HEADERS));
+        return sink.run(() -> transactionViewRepository.forEachRow(profileId, startDate, endDate, KeywordMatch.of(keyword),
+                "date", Sort.Direction.DESC, fetchSize, (TransactionViewRow row) -> {
+                    appendFullReportRow(sink, row);
+                    analysis.add(row.isIncome(), row.categoryId(), row.categoryName(), row.amount(), row.date());
+                }), writer -> analysis.writeTo(writer, startDate, endDate, keyword));
+    }
+
+    private static void appendFullReportRow(SheetSink<?> sink, TransactionViewRow row) {
+        sink.append(row.isIncome() ? "Income" : "Expense", nameOrNa(row.name()), nameOrNa(row.categoryName()),
+                amountOrZero(row.amount()), formatDate(row.date()));
+    }
+
+    static String formatDate(LocalDateTime dt) {
+        return dt != null ? dt.format(DATE_FMT) : "N/A";
+    }
+
+    private static String nameOrNa(String value) {
+        return value != null ? value : "N/A";
+    }
+
+    private static BigDecimal amountOrZero(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+
+    @FunctionalInterface
+    private interface Opener<W extends SheetWriter> {
+        W open(OutputStream out) throws IOException;
+    }
+
+    // What goes after the last row, before the file is finished
+    @FunctionalInterface
+    private interface Epilogue<W extends SheetWriter> {
+        void write(W writer) throws IOException;
+    }
+
+    // Opens the body on the first row, numbers rows, and flushes once per fetched batch
+    private final class SheetSink<W extends SheetWriter> {
+
+        private final Body body;
+        private final Opener<W> opener;
+        private W writer;
+        private long written;
+
+        SheetSink(Body body, Opener<W> opener) {
+            this.body = body;
+            this.opener = opener;
+        }
+
+        long run(Runnable query) throws IOException {
+            return run(query, writer -> { });
+        }
+
+        long run(Runnable query, Epilogue<W> epilogue) throws IOException {
+            try {
+                query.run();
+                open();
+                epilogue.write(writer);
+                writer.close();
+            } catch (UncheckedIOException e) {
+                // Usually the client went away; the cursor is already closed, nothing more can be sent
+                throw e.getCause();
+            }
+            return written;
+        }
+
+        void append(Object... cells) {
+            try {
+                open();
+                Object[] row = new Object[cells.length + 1];
+                row[0] = ++written;
+                System.arraycopy(cells, 0, row, 1, cells.length);
+                writer.row(row);
+                if (written % fetchSize == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void open() throws IOException {
+            if (writer == null) {
+                writer = opener.open(body.open());
+            }
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package in.bushansirgur.moneymanager.service;
 
+import in.bushansirgur.moneymanager.dto.FilterPageDTO;
+import in.bushansirgur.moneymanager.dto.FilterPageRequest;
+import in.bushansirgur.moneymanager.dto.KeywordMatch;
 import in.bushansirgur.moneymanager.dto.ExpenseDTO;
 import in.bushansirgur.moneymanager.entity.CategoryEntity;
 import in.bushansirgur.moneymanager.entity.ExpenseEntity;
 import in.bushansirgur.moneymanager.entity.ProfileEntity;
+import in.bushansirgur.moneymanager.event.ProfileDataChangedEvent;
 import in.bushansirgur.moneymanager.exception.ResourceNotFoundException;
 import in.bushansirgur.moneymanager.exception.UnauthorizedException;
 import in.bushansirgur.moneymanager.exception.ValidationException;
 import in.bushansirgur.moneymanager.repository.CategoryRepository;
 import in.bushansirgur.moneymanager.repository.ExpenseRepository;
+import in.bushansirgur.moneymanager.repository.TransactionPageRepository;
+import in.bushansirgur.moneymanager.util.KeysetCursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,10 +33,14 @@ public class ExpenseService {
     private final CategoryRepository categoryRepository;
     private final ExpenseRepository expenseRepository;
     private final ProfileService profileService;
+    private final BalanceService balanceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionPageRepository transactionPageRepository;
+    private final KeysetCursorCodec cursorCodec;
 
     @Transactional
     public ExpenseDTO addExpense(ExpenseDTO dto) {
-        ProfileEntity profile = profileService.getCurrentProfile();
+        Long profileId = profileService.getCurrentProfileId();
 
         if (dto.getName() == null || dto.getName().trim().isEmpty())
             throw new ValidationException("name", "Expense name is required");
@@ -40,7 +51,7 @@ public class ExpenseService {
 
         if (dto.getDate() == null) dto.setDate(LocalDateTime.now());
 
-        CategoryEntity category = categoryRepository.findByIdAndProfileId(dto.getCategoryId(), profile.getId())
+        CategoryEntity category = categoryRepository.findByIdAndProfileId(dto.getCategoryId(), profileId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Category with ID " + dto.getCategoryId() + " not found. Please create this category first or use a valid category ID from your categories list."));
 
@@ -48,92 +59,86 @@ public class ExpenseService {
             throw new ValidationException("categoryId",
                     "Category '" + category.getName() + "' is not an expense category. Please select a category with type 'EXPENSE'.");
 
-        ExpenseEntity newExpense = toEntity(dto, profile, category);
+        ExpenseEntity newExpense = toEntity(dto, profileService.getCurrentProfileReference(), category);
         newExpense = expenseRepository.save(newExpense);
+        balanceService.recordExpenseChange(profileId, newExpense.getAmount(), 1);
+        eventPublisher.publishEvent(ProfileDataChangedEvent.transactions(profileId));
         return toDTO(newExpense);
     }
 
-    // ── EXCEL BUG ROOT CAUSE FIX ─────────────────────────────────────────────
-    //
-    // WITHOUT @Transactional the Hibernate session lifecycle is:
-    //
-    //   profileService.getCurrentProfile()  → session opens, ProfileEntity loaded, SESSION CLOSES
-    //   expenseRepository.findBy...()        → new session opens, ExpenseEntity list fetched
-    //                                          LEFT JOIN FETCH loads categories inline ← good
-    //                                          SESSION CLOSES
-    //   list.stream().map(this::toDTO)       → NO SESSION
-    //     entity.getCategory().getId()       → LAZY proxy init attempted outside session
-    //     entity.getCategory().getName()     → LazyInitializationException (or silent null)
-    //
-    // The toDTO() call accesses category.id and category.name through LAZY proxies.
-    // Even though the JPQL uses LEFT JOIN FETCH, Hibernate 6 with open-in-view=false
-    // closes the session before toDTO() runs. The proxy is initialised (data is there)
-    // but the session is gone, so any further proxy access in the same call can fail.
-    //
-    // @Transactional keeps ONE session open for the entire method duration:
-    //   - ProfileEntity lookup
-    //   - Repository query (JOIN FETCH loads categories)
-    //   - toDTO() mapping (proxies are still within the open session)
-    //   - Session closes AFTER the method returns fully-mapped DTOs
-    //
-    // This is also why filterIncomes() works (IncomeEntity was already LAZY and
-    // its query patterns didn't trigger the same proxy timing issue) while
-    // filterExpenses() silently returned an empty or truncated list.
-    // ─────────────────────────────────────────────────────────────────────────
+    // Read paths return ExpenseDTOs built by constructor projection in ExpenseRepository, so no
+    // entity or lazy category proxy ever leaves the query. (Mapping entities in toDTO() after the
+    // session had closed is what once made the full Excel report drop every expense.)
 
     @Transactional(readOnly = true)
     public List<ExpenseDTO> getCurrentMonthExpensesForCurrentUser() {
-        ProfileEntity profile = profileService.getCurrentProfile();
+        Long profileId = profileService.getCurrentProfileId();
         LocalDate now = LocalDate.now();
         LocalDateTime startDate = now.withDayOfMonth(1).atStartOfDay();
         LocalDateTime endDate = now.withDayOfMonth(now.lengthOfMonth()).atTime(23, 59, 59);
-        return expenseRepository.findByProfileIdAndDateBetween(profile.getId(), startDate, endDate)
-                .stream().map(this::toDTO).toList();
+        return expenseRepository.findByProfileIdAndDateBetween(profileId, startDate, endDate);
     }
 
     @Transactional
     public void deleteExpense(Long expenseId) {
-        ProfileEntity profile = profileService.getCurrentProfile();
+        Long profileId = profileService.getCurrentProfileId();
         ExpenseEntity entity = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense", expenseId));
-        if (!entity.getProfile().getId().equals(profile.getId()))
+        if (!entity.getProfile().getId().equals(profileId))
             throw new UnauthorizedException("delete", "expense");
         expenseRepository.delete(entity);
+        balanceService.recordExpenseChange(profileId, negate(entity.getAmount()), -1);
+        eventPublisher.publishEvent(ProfileDataChangedEvent.transactions(profileId));
     }
 
     @Transactional(readOnly = true)
-    public List<ExpenseDTO> getLatest5ExpensesForCurrentUser() {
-        ProfileEntity profile = profileService.getCurrentProfile();
-        return expenseRepository.findTop5ByProfileIdOrderByDateDesc(profile.getId())
-                .stream().map(this::toDTO).toList();
+    public List<ExpenseDTO> filterExpenses(LocalDateTime startDate, LocalDateTime endDate, String keyword, Sort sort) {
+        Long profileId = profileService.getCurrentProfileId();
+        LocalDateTime start = startDate != null ? startDate : LocalDateTime.of(2000, 1, 1, 0, 0, 0);
+        LocalDateTime end   = endDate   != null ? endDate   : LocalDateTime.now().plusYears(10);
+        return findExpenses(profileId, start, end, keyword, sort);
     }
 
+    // One keyset page of the same filter; see TransactionPageRepository
     @Transactional(readOnly = true)
-    public BigDecimal getTotalExpenseForCurrentUser() {
-        ProfileEntity profile = profileService.getCurrentProfile();
-        BigDecimal total = expenseRepository.findTotalExpenseByProfileId(profile.getId());
-        return total != null ? total : BigDecimal.ZERO;
+    public FilterPageDTO<ExpenseDTO> filterExpensesPage(FilterPageRequest request) {
+        Long profileId = profileService.getCurrentProfileId();
+        List<ExpenseDTO> rows = transactionPageRepository.findPage(ExpenseEntity.class, ExpenseDTO.class, profileId,
+                request.startDate(), request.endDate(), KeywordMatch.of(request.keyword()),
+                request.sortField(), request.direction(), request.after(), request.limit());
+        return KeysetPages.toPage(rows, request.limit(),
+                last -> cursorCodec.encode(request.cursorAfter(sortValue(last, request.sortField()), last.getId()), request.filterKey()));
     }
 
-    // @Transactional(readOnly = true) is the critical fix here.
-    // filterExpenses() is called by ExcelController.downloadFullReport().
-    // Without the transaction, category proxy access in toDTO() fails
-    // silently or throws, producing the "only income downloaded" symptom.
+    // Newest first, like the report attached to the same email
     @Transactional(readOnly = true)
-    public List<ExpenseDTO> filterExpenses(LocalDateTime startDate, LocalDateTime endDate, String keyword, Sort sort) {
-        ProfileEntity profile = profileService.getCurrentProfile();
-        LocalDateTime start = startDate != null ? startDate : LocalDateTime.of(2000, 1, 1, 0, 0, 0);
-        LocalDateTime end   = endDate   != null ? endDate   : LocalDateTime.now().plusYears(10);
-        String kw = keyword != null ? keyword : "";
-        return expenseRepository.findByProfileIdAndDateBetweenAndNameContainingIgnoreCase(
-                        profile.getId(), start, end, kw, sort)
-                .stream().map(this::toDTO).toList();
+    public List<ExpenseDTO> getExpensesForUserOnDateRange(Long profileId, LocalDateTime start, LocalDateTime end) {
+        return expenseRepository.findByProfileIdAndDateBetween(profileId, start, end, Sort.by(Sort.Order.desc("date").nullsLast()));
     }
 
-    @Transactional(readOnly = true)
-    public List<ExpenseDTO> getExpensesForUserOnDateRange(Long profileId, LocalDateTime start, LocalDateTime end) {
-        return expenseRepository.findByProfileIdAndDateBetween(profileId, start, end)
-                .stream().map(this::toDTO).toList();
+    // A keyword is matched by the trigram index; without one the query has no name predicate at all
+    private List<ExpenseDTO> findExpenses(Long profileId, LocalDateTime start, LocalDateTime end, String keyword, Sort sort) {
+        KeywordMatch match = KeywordMatch.of(keyword);
+        if (match.isNone()) {
+            return expenseRepository.findByProfileIdAndDateBetween(profileId, start, end, sort);
+        }
+        return expenseRepository.findByProfileIdAndDateBetweenAndNameContainingIgnoreCase(profileId, start, end, match.keyword(), sort);
+    }
+
+    private static Object sortValue(ExpenseDTO row, String sortField) {
+        return switch (sortField) {
+            case "amount" -> row.getAmount();
+            case "name" -> row.getName();
+            default -> row.getDate();
+        };
+    }
+
+    private static BigDecimal negate(BigDecimal amount) {
+        return amount != null ? amount.negate() : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
     }
 
     private ExpenseEntity toEntity(ExpenseDTO dto, ProfileEntity profile, CategoryEntity category) {
@@ -163,15 +168,18 @@ public class ExpenseService {
 
     @Transactional
     public ExpenseDTO updateExpense(Long expenseId, ExpenseDTO dto) {
-        ProfileEntity profile = profileService.getCurrentProfile();
+        Long profileId = profileService.getCurrentProfileId();
 
         ExpenseEntity existing = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense", expenseId));
 
-        if (!existing.getProfile().getId().equals(profile.getId())) {
+        if (!existing.getProfile().getId().equals(profileId)) {
             throw new UnauthorizedException("update", "expense");
         }
 
+        // Captured before any field changes so the balance aggregate gets the exact delta
+        BigDecimal previousAmount = existing.getAmount();
+
         if (dto.getName() != null && dto.getName().trim().isEmpty()) {
             throw new ValidationException("name", "Expense name cannot be empty");
         }
@@ -193,7 +201,7 @@ public class ExpenseService {
         }
 
         if (dto.getCategoryId() != null) {
-            CategoryEntity category = categoryRepository.findByIdAndProfileId(dto.getCategoryId(), profile.getId())
+            CategoryEntity category = categoryRepository.findByIdAndProfileId(dto.getCategoryId(), profileId)
                     .orElseThrow(() -> new ResourceNotFoundException(
                             "Category with ID " + dto.getCategoryId() + " not found."));
 
@@ -205,6 +213,10 @@ public class ExpenseService {
         }
 
         existing = expenseRepository.save(existing);
+        if (previousAmount == null || existing.getAmount().compareTo(previousAmount) != 0) {
+            balanceService.recordExpenseChange(profileId, existing.getAmount().subtract(orZero(previousAmount)), 0);
+        }
+        eventPublisher.publishEvent(ProfileDataChangedEvent.transactions(profileId));
         return toDTO(existing);
     }
 }
\ No newline at end of file
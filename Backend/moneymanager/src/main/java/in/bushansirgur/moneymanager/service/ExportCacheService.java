@@ -0,0 +1,237 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.event.ProfileDataChangedEvent;
+import in.bushansirgur.moneymanager.util.ExportFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Disk cache of generated exports. The same month's income/expense report used to be
+ * rebuilt on every download and every "email me" click.
+ *
+ * An entry is named by the SHA-256 of (profile, report, format, range, keyword, sort, data version).
+ * The data version comes from DataVersionService and is bumped by every income, expense or
+ * category write, so a changed profile simply stops matching its old entries; those are also
+ * deleted right after the write commits, to give the space back. Entries are evicted least
+ * recently used first once the files exceed export.cache.max-bytes.
+ *
+ * Either kind of deletion can come at any moment, so a hit is handed out as a channel opened
+ * under the index lock rather than as a path: once open, unlinking the file no longer affects
+ * the reader, and the size it reports is that of the bytes it will actually read.
+ *
+ * The index lives in memory, so the directory is emptied at startup.
+ */
+@Service
+@Slf4j
+public class ExportCacheService {
+
+    /** An export on disk, open and ready to be sent as is. The caller closes it. */
+    public static final class CachedExport implements Closeable {
+        private final FileChannel channel;
+        private final long size;
+        private final ExportFormat format;
+
+        private CachedExport(FileChannel channel, ExportFormat format) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.format = format;
+        }
+
+        public static CachedExport open(Path file, ExportFormat format) throws IOException {
+            return new CachedExport(FileChannel.open(file, StandardOpenOption.READ), format);
+        }
+
+        public long size() {
+            return size;
+        }
+
+        public ExportFormat format() {
+            return format;
+        }
+
+        public void transferTo(OutputStream out) throws IOException {
+            WritableByteChannel target = Channels.newChannel(out);
+            for (long position = 0; position < size; ) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+
+        public byte[] readAllBytes() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.toIntExact(size));
+            transferTo(out);
+            return out.toByteArray();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private record Entry(Long profileId, Path path, long size, ExportFormat format) {
+    }
+
+    private final ExcelExportService excelExportService;
+    private final DataVersionService dataVersionService;
+    private final ProfileService profileService;
+    private final Path directory;
+    private final long maxBytes;
+
+    // Access order: iteration starts at the least recently used entry. Guarded by this.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    public ExportCacheService(ExcelExportService excelExportService,
+                              DataVersionService dataVersionService,
+                              ProfileService profileService,
+                              @Value("${export.cache.dir:${java.io.tmpdir}/moneymanager-export-cache}") String directory,
+                              @Value("${export.cache.max-bytes:268435456}") long maxBytes) throws IOException {
+        this.excelExportService = excelExportService;
+        this.dataVersionService = dataVersionService;
+        this.profileService = profileService;
+        this.directory = Files.createDirectories(Path.of(directory));
+        this.maxBytes = maxBytes;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*.{xlsx,csv,gz,part}")) {
+            files.forEach(ExportCacheService::deleteQuietly);
+        }
+    }
+
+    /** The current profile's income or expense report for the current month (type "income" / "expense"). */
+    public CachedExport currentMonth(String type, ExportFormat format) throws IOException {
+        LocalDate now = LocalDate.now();
+        return transactions(type, now.withDayOfMonth(1).atStartOfDay(),
+                now.withDayOfMonth(now.lengthOfMonth()).atTime(23, 59, 59), "", "date", Sort.Direction.DESC, format);
+    }
+
+    public CachedExport transactions(String type, LocalDateTime startDate, LocalDateTime endDate, String keyword,
+                                     String sortField, Sort.Direction direction, ExportFormat format) throws IOException {
+        return get(type, format, startDate, endDate, keyword, sortField + "," + direction,
+                out -> excelExportService.exportTransactions(type, startDate, endDate, keyword, sortField, direction,
+                        format, () -> out));
+    }
+
+    CachedExport get(String report, ExportFormat format, LocalDateTime startDate, LocalDateTime endDate, String keyword,
+                     String sort, ExcelExportService.Export export) throws IOException {
+        Long profileId = profileService.getCurrentProfileId();
+        // Read before generating: a write racing the export leaves an entry under the older
+        // version, which the next request no longer asks for — never a stale hit
+        long version = dataVersionService.currentVersion(profileId);
+        String name = hash(profileId + "|" + report + "|" + format + "|" + startDate + "|" + endDate + "|" + keyword + "|" + sort + "|" + version);
+
+        synchronized (this) {
+            Entry entry = entries.get(name);
+            if (entry != null) {
+                return CachedExport.open(entry.path(), entry.format());
+            }
+        }
+
+        // Concurrent misses for the same key each build their own .part; the identical results
+        // replace each other atomically
+        Path part = Files.createTempFile(directory, name, ".part");
+        Path file = directory.resolve(name + "." + format.extension());
+        CachedExport opened;
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), 64 * 1024)) {
+                export.writeTo(out);
+            }
+            // Opened before the move: once published, the file may be evicted or invalidated
+            // (or replaced by a concurrent miss) before this request would get to open it
+            opened = CachedExport.open(part, format);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(part);
+            throw e;
+        }
+        try {
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            opened.close();
+            deleteQuietly(part);
+            throw e;
+        }
+        Entry entry = new Entry(profileId, file, opened.size(), format);
+        synchronized (this) {
+            Entry previous = entries.put(name, entry);
+            totalBytes += entry.size() - (previous != null ? previous.size() : 0);
+            evictOverBudget(name);
+        }
+        return opened;
+    }
+
+    // The version has moved on, so nothing will ask for this profile's entries again
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProfileDataChanged(ProfileDataChangedEvent event) {
+        List<Path> stale = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.profileId().equals(event.profileId())) {
+                    it.remove();
+                    totalBytes -= entry.size();
+                    stale.add(entry.path());
+                }
+            }
+        }
+        stale.forEach(ExportCacheService::deleteQuietly);
+    }
+
+    // Least recently used first; the entry just added is kept even if it alone exceeds the budget.
+    // Unlinking a file that is already open doesn't interrupt its reader.
+    private void evictOverBudget(String keep) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= eldest.getValue().size();
+            deleteQuietly(eldest.getValue().path());
+        }
+    }
+
+    private static String hash(String key) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete cached export {}: {}", path, e.getMessage());
+        }
+    }
+}
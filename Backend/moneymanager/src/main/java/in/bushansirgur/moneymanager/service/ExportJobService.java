@@ -0,0 +1,250 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.dto.ExportJobDTO;
+import in.bushansirgur.moneymanager.exception.ConflictException;
+import in.bushansirgur.moneymanager.exception.ResourceNotFoundException;
+import in.bushansirgur.moneymanager.exception.ServiceUnavailableException;
+import in.bushansirgur.moneymanager.exception.TooManyRequestsException;
+import in.bushansirgur.moneymanager.util.ExportFormat;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background exports: the report is generated on a small worker pool into a file under
+ * export.jobs.dir, and the client polls for it and downloads the file (with Range support,
+ * so a dropped download resumes instead of starting over). No request thread or HTTP
+ * connection is held while a large report is generated.
+ *
+ * At most export.jobs.threads exports run at once and export.jobs.queue-capacity wait; beyond
+ * that submissions get a 503. Each profile may have export.jobs.per-profile-limit jobs queued
+ * or running. Finished jobs and their files are removed ttl-minutes after they finish; files
+ * left over from a previous run are removed at startup.
+ *
+ * Jobs live in memory, so with several instances the poll and download must reach the
+ * instance that took the submission.
+ */
+@Service
+@Slf4j
+public class ExportJobService {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    /** A finished export on disk, with the name and format it should be downloaded as. */
+    public record ExportFile(Path path, String filename, ExportFormat format) {
+    }
+
+    private final ExcelExportService excelExportService;
+    private final ProfileService profileService;
+    private final Path directory;
+    private final int perProfileLimit;
+    private final Duration ttl;
+    private final ExecutorService executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public ExportJobService(ExcelExportService excelExportService,
+                            ProfileService profileService,
+                            @Value("${export.jobs.dir:${java.io.tmpdir}/moneymanager-exports}") String directory,
+                            @Value("${export.jobs.threads:2}") int threads,
+                            @Value("${export.jobs.queue-capacity:16}") int queueCapacity,
+                            @Value("${export.jobs.per-profile-limit:2}") int perProfileLimit,
+                            @Value("${export.jobs.ttl-minutes:60}") long ttlMinutes) throws IOException {
+        this.excelExportService = excelExportService;
+        this.profileService = profileService;
+        this.directory = Files.createDirectories(Path.of(directory));
+        this.perProfileLimit = perProfileLimit;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        AtomicInteger threadCount = new AtomicInteger();
+        // The submitting request's security context goes along, so the export runs as that profile
+        this.executor = new DelegatingSecurityContextExecutorService(new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()));
+        deleteLeftovers();
+    }
+
+    /**
+     * Queues a full report (same content as /excel/download/full) for the current profile;
+     * with analysis, the xlsx analysis workbook instead.
+     */
+    public ExportJobDTO submitFullReport(LocalDateTime startDate, LocalDateTime endDate, String keyword,
+                                         ExportFormat format, boolean analysis, String filename) {
+        Long profileId = profileService.getCurrentProfileId();
+        Job job = new Job(UUID.randomUUID().toString(), profileId, filename, format);
+        // Check-then-add must be atomic, or two parallel submissions could both pass the cap
+        synchronized (this) {
+            long active = jobs.values().stream()
+                    .filter(j -> j.profileId.equals(profileId) && !j.isFinished())
+                    .count();
+            if (active >= perProfileLimit) {
+                throw new TooManyRequestsException(
+                        "You already have " + active + " exports in progress. Wait for one to finish.", 30);
+            }
+            jobs.put(job.id, job);
+        }
+        try {
+            executor.submit(() -> run(job, out -> analysis
+                    ? excelExportService.exportFullReportAnalysis(startDate, endDate, keyword, () -> out)
+                    : excelExportService.exportFullReport(startDate, endDate, keyword, format, () -> out)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ServiceUnavailableException("The export queue is full. Please try again shortly.");
+        }
+        return job.toDTO();
+    }
+
+    public ExportJobDTO getJob(String id) {
+        return ownedJob(id).toDTO();
+    }
+
+    /** The finished file; 409 while the job is still queued or running or when it failed. */
+    public ExportFile getFile(String id) {
+        Job job = ownedJob(id);
+        if (job.status != Status.DONE) {
+            throw new ConflictException("Export job " + id + " is " + job.status + ", not DONE", "EXPORT_NOT_READY");
+        }
+        return new ExportFile(job.file(directory), job.filename, job.format);
+    }
+
+    @Scheduled(fixedDelayString = "${export.jobs.cleanup-interval-ms:60000}")
+    void removeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || job.finishedAt.isAfter(cutoff)) {
+                return false;
+            }
+            deleteQuietly(job.file(directory));
+            return true;
+        });
+    }
+
+    // Interrupts running exports and waits for them to clean up their .part files, so nothing
+    // is still writing into the directory once the bean is gone
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Export jobs still running 30s after shutdown was requested");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Writes to <id>.part and renames when complete, so a DONE job never points at a partial file
+    void run(Job job, ExcelExportService.Export export) {
+        job.status = Status.RUNNING;
+        Path part = directory.resolve(job.id + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), 64 * 1024)) {
+                job.rows = export.writeTo(out);
+            }
+            // An export that swallowed the interrupt may have stopped short
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("export job interrupted");
+            }
+            Path file = job.file(directory);
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.bytes = Files.size(file);
+            job.finish(Status.DONE);
+        } catch (Exception e) {
+            log.warn("Export job {} for profile {} failed: {}", job.id, job.profileId, e.toString());
+            job.error = "The export could not be generated. Please try again.";
+            job.finish(Status.FAILED);
+        } finally {
+            // Already moved when the job succeeded
+            deleteQuietly(part);
+        }
+    }
+
+    // Someone else's job id gets the same 404 as an unknown one
+    private Job ownedJob(String id) {
+        Job job = jobs.get(id);
+        if (job == null || !job.profileId.equals(profileService.getCurrentProfileId())) {
+            throw new ResourceNotFoundException("Export job", "id", id);
+        }
+        return job;
+    }
+
+    private void deleteLeftovers() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{xlsx,csv,gz,part}")) {
+            files.forEach(ExportJobService::deleteQuietly);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}: {}", path, e.getMessage());
+        }
+    }
+
+    static final class Job {
+        final String id;
+        final Long profileId;
+        final String filename;
+        final ExportFormat format;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        // Written by the worker, read by polling requests
+        volatile Status status = Status.QUEUED;
+        volatile long rows;
+        volatile long bytes;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        Job(String id, Long profileId, String filename, ExportFormat format) {
+            this.id = id;
+            this.profileId = profileId;
+            this.filename = filename;
+            this.format = format;
+        }
+
+        boolean isFinished() {
+            return status == Status.DONE || status == Status.FAILED;
+        }
+
+        void finish(Status finalStatus) {
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        Path file(Path directory) {
+            return directory.resolve(id + "." + format.extension());
+        }
+
+        ExportJobDTO toDTO() {
+            return new ExportJobDTO(id, status.name(), filename, rows, bytes, createdAt, finishedAt, error);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package in.bushansirgur.moneymanager.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.bushansirgur.moneymanager.dto.KeywordMatch;
+import in.bushansirgur.moneymanager.repository.TransactionStreamRepository;
+import in.bushansirgur.moneymanager.repository.TransactionViewRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Streaming variant of /filter: rows go from the JDBC cursor through a Jackson generator
+ * straight into the response, so heap use stays flat however many rows match.
+ * The old path held the entity list, the DTO list and the serialized body at the same time.
+ */
+@Service
+public class FilterStreamService {
+
+    private final TransactionStreamRepository transactionStreamRepository;
+    private final TransactionViewRepository transactionViewRepository;
+    private final ProfileService profileService;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public FilterStreamService(TransactionStreamRepository transactionStreamRepository,
+                               TransactionViewRepository transactionViewRepository,
+                               ProfileService profileService,
+                               ObjectMapper objectMapper,
+                               @Value("${filter.stream.fetch-size:500}") int fetchSize) {
+        this.transactionStreamRepository = transactionStreamRepository;
+        this.transactionViewRepository = transactionViewRepository;
+        this.profileService = profileService;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes a JSON array of matching rows. The read-only transaction is what lets the
+     * driver use a server-side cursor; it stays open until the last row is written.
+     * Returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long writeFiltered(String type, LocalDateTime startDate, LocalDateTime endDate, String keyword,
+                              String sortField, Sort.Direction direction, OutputStream out) throws IOException {
+        Long profileId = profileService.getCurrentProfileId();
+        long[] written = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            try {
+                Consumer<Object> writer = row -> {
+                    try {
+                        generator.writeObject(row);
+                        // Push each fetched batch to the client instead of letting the buffer grow
+                        if (++written[0] % fetchSize == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+                if (type.equals("all")) {
+                    // Incomes and expenses merged by the database; each row carries its type
+                    transactionViewRepository.forEachRow(profileId, startDate, endDate, KeywordMatch.of(keyword),
+                            sortField, direction, fetchSize, writer::accept);
+                } else {
+                    transactionStreamRepository.forEachRow(type, profileId, startDate, endDate, keyword,
+                            sortField, direction, fetchSize, writer::accept);
+                }
+            } catch (UncheckedIOException e) {
+                // Usually the client went away; nothing more can be sent on this response
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+        }
+        return written[0];
+    }
+}
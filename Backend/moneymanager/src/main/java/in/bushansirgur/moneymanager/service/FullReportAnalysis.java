@@ -0,0 +1,170 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.util.XlsxStreamWriter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Running totals behind the analysis workbook (ExcelExportService.exportFullReportAnalysis),
+ * fed by the same pass that writes each transaction row. Amounts are summed as BigDecimal:
+ * the columns are NUMERIC(38, 2), which long cents cannot hold, and an overflow here would
+ * only surface after the transaction sheet had already been streamed. No row is kept, only
+ * one bucket per category and per month, written out as the remaining sheets once the cursor
+ * is done.
+ */
+final class FullReportAnalysis {
+
+    static final List<String> SHEETS = List.of("All Transactions", "Summary", "By Category", "By Month");
+
+    private static final String[] CATEGORY_HEADERS = {"Type", "Category", "Transactions", "Amount", "Share of Type (%)"};
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(2);
+
+    private static final String[] MONTH_HEADERS = {"Month", "Income", "Expenses", "Net", "Transactions"};
+
+    private BigDecimal incomeTotal = ZERO;
+    private BigDecimal expenseTotal = ZERO;
+    private long incomeCount;
+    private long expenseCount;
+
+    private final Map<Long, Bucket> categories = new HashMap<>();
+    private final List<Bucket> months = new ArrayList<>();
+    // Rows arrive date-ordered, so this is nearly always the month of the next row too
+    private Bucket currentMonth;
+    private Bucket undated;
+
+    void add(boolean income, Long categoryId, String categoryName, BigDecimal amount, LocalDateTime date) {
+        BigDecimal value = amount != null ? amount.setScale(2, RoundingMode.HALF_UP) : ZERO;
+        if (income) {
+            incomeTotal = incomeTotal.add(value);
+            incomeCount++;
+        } else {
+            expenseTotal = expenseTotal.add(value);
+            expenseCount++;
+        }
+
+        // Category ids are unique across both types; uncategorised rows get one bucket per type
+        long categoryKey = categoryId != null ? categoryId : income ? -1 : -2;
+        Bucket category = categories.get(categoryKey);
+        if (category == null) {
+            category = new Bucket(income ? "Income" : "Expense", categoryName != null ? categoryName : "N/A", 0);
+            categories.put(categoryKey, category);
+        }
+        category.add(income, value);
+
+        monthOf(date).add(income, value);
+    }
+
+    /** Ends the transaction sheet and writes the Summary, By Category and By Month sheets. */
+    void writeTo(XlsxStreamWriter writer, LocalDateTime startDate, LocalDateTime endDate, String keyword) throws IOException {
+        writer.nextSheet("Metric", "Value");
+        writer.row("From", ExcelExportService.formatDate(startDate));
+        writer.row("To", ExcelExportService.formatDate(endDate));
+        if (keyword != null && !keyword.isEmpty()) {
+            writer.row("Keyword", keyword);
+        }
+        writer.row("Total Income", incomeTotal);
+        writer.row("Total Expenses", expenseTotal);
+        writer.row("Net Balance", incomeTotal.subtract(expenseTotal));
+        writer.row("Income Transactions", incomeCount);
+        writer.row("Expense Transactions", expenseCount);
+
+        writer.nextSheet(CATEGORY_HEADERS);
+        List<Bucket> byCategory = new ArrayList<>(categories.values());
+        // Income first, then the biggest categories
+        byCategory.sort(Comparator.comparing((Bucket bucket) -> bucket.label.equals("Expense"))
+                .thenComparing(Comparator.comparing(Bucket::total).reversed())
+                .thenComparing(bucket -> bucket.name));
+        for (Bucket category : byCategory) {
+            boolean income = category.label.equals("Income");
+            writer.row(category.label, category.name, category.count(), category.total(),
+                    share(category.total(), income ? incomeTotal : expenseTotal));
+        }
+
+        writer.nextSheet(MONTH_HEADERS);
+        List<Bucket> byMonth = new ArrayList<>(months);
+        byMonth.sort(Comparator.comparingInt((Bucket bucket) -> bucket.yearMonth).reversed());
+        if (undated != null) {
+            byMonth.add(undated);
+        }
+        for (Bucket month : byMonth) {
+            writer.row(month.name, month.incomeTotal, month.expenseTotal,
+                    month.incomeTotal.subtract(month.expenseTotal), month.count());
+        }
+    }
+
+    private Bucket monthOf(LocalDateTime date) {
+        if (date == null) {
+            if (undated == null) {
+                undated = new Bucket(null, "No Date", 0);
+            }
+            return undated;
+        }
+        int yearMonth = date.getYear() * 100 + date.getMonthValue();
+        if (currentMonth != null && currentMonth.yearMonth == yearMonth) {
+            return currentMonth;
+        }
+        // Only reached when the month changes; a handful of buckets at most
+        for (Bucket month : months) {
+            if (month.yearMonth == yearMonth) {
+                return currentMonth = month;
+            }
+        }
+        String name = Month.of(date.getMonthValue()).getDisplayName(TextStyle.SHORT, Locale.ENGLISH) + " " + date.getYear();
+        currentMonth = new Bucket(null, name, yearMonth);
+        months.add(currentMonth);
+        return currentMonth;
+    }
+
+    private static BigDecimal share(BigDecimal amount, BigDecimal typeTotal) {
+        if (typeTotal.signum() == 0) {
+            return ZERO;
+        }
+        return amount.multiply(BigDecimal.valueOf(100)).divide(typeTotal, 2, RoundingMode.HALF_UP);
+    }
+
+    // One category (label = its type) or one month (yearMonth = yyyyMM, 0 for undated)
+    private static final class Bucket {
+        final String label;
+        final String name;
+        final int yearMonth;
+        BigDecimal incomeTotal = ZERO;
+        BigDecimal expenseTotal = ZERO;
+        long incomeCount;
+        long expenseCount;
+
+        Bucket(String label, String name, int yearMonth) {
+            this.label = label;
+            this.name = name;
+            this.yearMonth = yearMonth;
+        }
+
+        void add(boolean income, BigDecimal amount) {
+            if (income) {
+                incomeTotal = incomeTotal.add(amount);
+                incomeCount++;
+            } else {
+                expenseTotal = expenseTotal.add(amount);
+                expenseCount++;
+            }
+        }
+
+        BigDecimal total() {
+            return incomeTotal.add(expenseTotal);
+        }
+
+        long count() {
+            return incomeCount + expenseCount;
+        }
+    }
+}
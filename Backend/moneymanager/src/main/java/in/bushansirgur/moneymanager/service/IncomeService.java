@@ -1,15 +1,22 @@
 package in.bushansirgur.moneymanager.service;
 
+import in.bushansirgur.moneymanager.dto.FilterPageDTO;
+import in.bushansirgur.moneymanager.dto.FilterPageRequest;
+import in.bushansirgur.moneymanager.dto.KeywordMatch;
 import in.bushansirgur.moneymanager.dto.IncomeDTO;
 import in.bushansirgur.moneymanager.entity.CategoryEntity;
 import in.bushansirgur.moneymanager.entity.IncomeEntity;
 import in.bushansirgur.moneymanager.entity.ProfileEntity;
+import in.bushansirgur.moneymanager.event.ProfileDataChangedEvent;
 import in.bushansirgur.moneymanager.exception.ResourceNotFoundException;
 import in.bushansirgur.moneymanager.exception.UnauthorizedException;
 import in.bushansirgur.moneymanager.exception.ValidationException;
 import in.bushansirgur.moneymanager.repository.CategoryRepository;
 import in.bushansirgur.moneymanager.repository.IncomeRepository;
+import in.bushansirgur.moneymanager.repository.TransactionPageRepository;
+import in.bushansirgur.moneymanager.util.KeysetCursorCodec;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,10 +33,14 @@ public class IncomeService {
     private final CategoryRepository categoryRepository;
     private final IncomeRepository incomeRepository;
     private final ProfileService profileService;
+    private final BalanceService balanceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionPageRepository transactionPageRepository;
+    private final KeysetCursorCodec cursorCodec;
 
     @Transactional
     public IncomeDTO addIncome(IncomeDTO dto) {
-        ProfileEntity profile = profileService.getCurrentProfile();
+        Long profileId = profileService.getCurrentProfileId();
 
         if (dto.getName() == null || dto.getName().trim().isEmpty())
             throw new ValidationException("name", "Income name is required");
@@ -40,7 +51,7 @@ public class IncomeService {
 
         if (dto.getDate() == null) dto.setDate(LocalDateTime.now());
 
-        CategoryEntity category = categoryRepository.findByIdAndProfileId(dto.getCategoryId(), profile.getId())
+        CategoryEntity category = categoryRepository.findByIdAndProfileId(dto.getCategoryId(), profileId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Category with ID " + dto.getCategoryId() + " not found."));
 
@@ -48,21 +59,26 @@ public class IncomeService {
             throw new ValidationException("categoryId",
                     "Category '" + category.getName() + "' is not an income category.");
 
-        IncomeEntity newIncome = toEntity(dto, profile, category);
+        IncomeEntity newIncome = toEntity(dto, profileService.getCurrentProfileReference(), category);
         newIncome = incomeRepository.save(newIncome);
+        balanceService.recordIncomeChange(profileId, newIncome.getAmount(), 1);
+        eventPublisher.publishEvent(ProfileDataChangedEvent.transactions(profileId));
         return toDTO(newIncome);
     }
 
     @Transactional
     public IncomeDTO updateIncome(Long incomeId, IncomeDTO dto) {
-        ProfileEntity profile = profileService.getCurrentProfile();
+        Long profileId = profileService.getCurrentProfileId();
 
         IncomeEntity existing = incomeRepository.findById(incomeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Income", incomeId));
 
-        if (!existing.getProfile().getId().equals(profile.getId()))
+        if (!existing.getProfile().getId().equals(profileId))
             throw new UnauthorizedException("update", "income");
 
+        // Captured before any field changes so the balance aggregate gets the exact delta
+        BigDecimal previousAmount = existing.getAmount();
+
         if (dto.getName() != null && dto.getName().trim().isEmpty())
             throw new ValidationException("name", "Income name cannot be empty");
         if (dto.getAmount() != null && dto.getAmount().compareTo(BigDecimal.ZERO) <= 0)
@@ -74,7 +90,7 @@ public class IncomeService {
         if (dto.getIcon() != null) existing.setIcon(dto.getIcon());
 
         if (dto.getCategoryId() != null) {
-            CategoryEntity category = categoryRepository.findByIdAndProfileId(dto.getCategoryId(), profile.getId())
+            CategoryEntity category = categoryRepository.findByIdAndProfileId(dto.getCategoryId(), profileId)
                     .orElseThrow(() -> new ResourceNotFoundException(
                             "Category with ID " + dto.getCategoryId() + " not found."));
             if (category.getType() != null && !category.getType().equalsIgnoreCase("INCOME"))
@@ -84,58 +100,82 @@ public class IncomeService {
         }
 
         existing = incomeRepository.save(existing);
+        if (previousAmount == null || existing.getAmount().compareTo(previousAmount) != 0) {
+            balanceService.recordIncomeChange(profileId, existing.getAmount().subtract(orZero(previousAmount)), 0);
+        }
+        eventPublisher.publishEvent(ProfileDataChangedEvent.transactions(profileId));
         return toDTO(existing);
     }
 
     @Transactional(readOnly = true)
     public List<IncomeDTO> getCurrentMonthIncomesForCurrentUser() {
-        ProfileEntity profile = profileService.getCurrentProfile();
+        Long profileId = profileService.getCurrentProfileId();
         LocalDate now = LocalDate.now();
         LocalDateTime startDate = now.withDayOfMonth(1).atStartOfDay();
         LocalDateTime endDate = now.withDayOfMonth(now.lengthOfMonth()).atTime(23, 59, 59);
-        return incomeRepository.findByProfileIdAndDateBetween(profile.getId(), startDate, endDate)
-                .stream().map(this::toDTO).toList();
+        return incomeRepository.findByProfileIdAndDateBetween(profileId, startDate, endDate);
     }
 
     @Transactional
     public void deleteIncome(Long incomeId) {
-        ProfileEntity profile = profileService.getCurrentProfile();
+        Long profileId = profileService.getCurrentProfileId();
         IncomeEntity entity = incomeRepository.findById(incomeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Income", incomeId));
-        if (!entity.getProfile().getId().equals(profile.getId()))
+        if (!entity.getProfile().getId().equals(profileId))
             throw new UnauthorizedException("delete", "income");
         incomeRepository.delete(entity);
+        balanceService.recordIncomeChange(profileId, negate(entity.getAmount()), -1);
+        eventPublisher.publishEvent(ProfileDataChangedEvent.transactions(profileId));
     }
 
     @Transactional(readOnly = true)
-    public List<IncomeDTO> getLatest5IncomesForCurrentUser() {
-        ProfileEntity profile = profileService.getCurrentProfile();
-        return incomeRepository.findTop5ByProfileIdOrderByDateDesc(profile.getId())
-                .stream().map(this::toDTO).toList();
+    public List<IncomeDTO> filterIncomes(LocalDateTime startDate, LocalDateTime endDate, String keyword, Sort sort) {
+        Long profileId = profileService.getCurrentProfileId();
+        LocalDateTime start = startDate != null ? startDate : LocalDateTime.of(2000, 1, 1, 0, 0, 0);
+        LocalDateTime end   = endDate   != null ? endDate   : LocalDateTime.now().plusYears(10);
+        return findIncomes(profileId, start, end, keyword, sort);
     }
 
+    // One keyset page of the same filter; see TransactionPageRepository
     @Transactional(readOnly = true)
-    public BigDecimal getTotalIncomeForCurrentUser() {
-        ProfileEntity profile = profileService.getCurrentProfile();
-        BigDecimal total = incomeRepository.findTotalIncomeByProfileId(profile.getId());
-        return total != null ? total : BigDecimal.ZERO;
+    public FilterPageDTO<IncomeDTO> filterIncomesPage(FilterPageRequest request) {
+        Long profileId = profileService.getCurrentProfileId();
+        List<IncomeDTO> rows = transactionPageRepository.findPage(IncomeEntity.class, IncomeDTO.class, profileId,
+                request.startDate(), request.endDate(), KeywordMatch.of(request.keyword()),
+                request.sortField(), request.direction(), request.after(), request.limit());
+        return KeysetPages.toPage(rows, request.limit(),
+                last -> cursorCodec.encode(request.cursorAfter(sortValue(last, request.sortField()), last.getId()), request.filterKey()));
     }
 
+    // Newest first, like the report attached to the same email
     @Transactional(readOnly = true)
-    public List<IncomeDTO> filterIncomes(LocalDateTime startDate, LocalDateTime endDate, String keyword, Sort sort) {
-        ProfileEntity profile = profileService.getCurrentProfile();
-        LocalDateTime start = startDate != null ? startDate : LocalDateTime.of(2000, 1, 1, 0, 0, 0);
-        LocalDateTime end   = endDate   != null ? endDate   : LocalDateTime.now().plusYears(10);
-        String kw = keyword != null ? keyword : "";
-        return incomeRepository.findByProfileIdAndDateBetweenAndNameContainingIgnoreCase(
-                        profile.getId(), start, end, kw, sort)
-                .stream().map(this::toDTO).toList();
+    public List<IncomeDTO> getIncomesForUserOnDateRange(Long profileId, LocalDateTime start, LocalDateTime end) {
+        return incomeRepository.findByProfileIdAndDateBetween(profileId, start, end, Sort.by(Sort.Order.desc("date").nullsLast()));
     }
 
-    @Transactional(readOnly = true)
-    public List<IncomeDTO> getIncomesForUserOnDateRange(Long profileId, LocalDateTime start, LocalDateTime end) {
-        return incomeRepository.findByProfileIdAndDateBetween(profileId, start, end)
-                .stream().map(this::toDTO).toList();
+    // A keyword is matched by the trigram index; without one the query has no name predicate at all
+    private List<IncomeDTO> findIncomes(Long profileId, LocalDateTime start, LocalDateTime end, String keyword, Sort sort) {
+        KeywordMatch match = KeywordMatch.of(keyword);
+        if (match.isNone()) {
+            return incomeRepository.findByProfileIdAndDateBetween(profileId, start, end, sort);
+        }
+        return incomeRepository.findByProfileIdAndDateBetweenAndNameContainingIgnoreCase(profileId, start, end, match.keyword(), sort);
+    }
+
+    private static Object sortValue(IncomeDTO row, String sortField) {
+        return switch (sortField) {
+            case "amount" -> row.getAmount();
+            case "name" -> row.getName();
+            default -> row.getDate();
+        };
+    }
+
+    private static BigDecimal negate(BigDecimal amount) {
+        return amount != null ? amount.negate() : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal orZero(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
     }
 
     private IncomeEntity toEntity(IncomeDTO dto, ProfileEntity profile, CategoryEntity category) {
@@ -0,0 +1,23 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.dto.FilterPageDTO;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Turns the limit + 1 rows a keyset query returns into a page: the extra row, if present,
+ * only signals that there is more, and the cursor points at the last row actually returned.
+ */
+final class KeysetPages {
+
+    private KeysetPages() {
+    }
+
+    static <T> FilterPageDTO<T> toPage(List<T> rows, int limit, Function<T, String> cursorOf) {
+        boolean hasMore = rows.size() > limit;
+        List<T> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)) : null;
+        return new FilterPageDTO<>(List.copyOf(page), nextCursor, hasMore);
+    }
+}
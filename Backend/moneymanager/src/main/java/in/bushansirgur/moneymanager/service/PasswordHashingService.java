@@ -0,0 +1,145 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs BCrypt encode/matches on a small dedicated pool instead of the Tomcat request thread pool.
+ *
+ * A login burst used to put one BCrypt computation on every request thread at once, starving
+ * every other endpoint. Here at most security.password-hash.threads hashes run in parallel,
+ * at most security.password-hash.queue-capacity wait, and anything beyond that is rejected
+ * straight away with a 503 so the client can retry instead of piling up.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${security.password-hash.threads:0}") int threads,
+                                  @Value("${security.password-hash.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.password-hash.timeout-ms:5000}") long timeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeoutMillis;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True when the stored hash uses an older algorithm or a lower cost than the encoder
+     * now produces. Cheap — only parses the hash prefix, so it runs on the calling thread.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    public Stats stats() {
+        long count = completed.sum();
+        return new Stats(
+                count,
+                rejected.sum(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                count > 0 ? TimeUnit.NANOSECONDS.toMicros(totalQueueNanos.sum() / count) : 0,
+                count > 0 ? TimeUnit.NANOSECONDS.toMicros(totalHashNanos.sum() / count) : 0,
+                TimeUnit.NANOSECONDS.toMicros(maxHashNanos.get()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> hashing) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return hashing.call();
+                } finally {
+                    long hashNanos = System.nanoTime() - startedAt;
+                    totalQueueNanos.add(startedAt - submittedAt);
+                    totalHashNanos.add(hashNanos);
+                    maxHashNanos.accumulate(hashNanos);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing pool saturated ({} active, {} queued) — rejecting request",
+                    executor.getActiveCount(), executor.getQueue().size());
+            throw busy();
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static ServiceUnavailableException busy() {
+        return new ServiceUnavailableException("Server is busy processing other logins. Please try again in a few seconds.");
+    }
+
+    /** Latency figures are averages in microseconds over all completed hashes. */
+    public record Stats(long completed, long rejected, int active, int queued,
+                        long avgQueueMicros, long avgHashMicros, long maxHashMicros) {}
+}
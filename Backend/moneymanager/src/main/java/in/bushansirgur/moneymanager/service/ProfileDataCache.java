@@ -0,0 +1,91 @@
+package in.bushansirgur.moneymanager.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import in.bushansirgur.moneymanager.config.CacheConfig;
+import in.bushansirgur.moneymanager.dto.CategoryDTO;
+import in.bushansirgur.moneymanager.service.DataVersionService.DataVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Per-profile cache of the dashboard payload and category lists.
+ *
+ * Keys are (profile id, data version) — the same DataVersion the request's ETag was built
+ * from. Every committed write bumps the version (DataVersionService), so entries of older
+ * versions are simply never asked for again and age out through the size bound and TTL;
+ * there is no eviction to race with. A body built while a write commits can only hold data
+ * newer than its key's version, which costs the client one more 200, never a stale 304.
+ *
+ * Hit/miss counts come from the caches themselves (recordStats in CacheConfig); the actuator
+ * binds both to Micrometer, and stats() reads the same numbers directly.
+ */
+@Component
+@Slf4j
+public class ProfileDataCache {
+
+    static final String ALL_TYPES = "ALL";
+
+    private final Cache dashboardCache;
+    private final Cache categoriesCache;
+
+    public ProfileDataCache(CacheManager cacheManager) {
+        this.dashboardCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.DASHBOARD));
+        this.categoriesCache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.CATEGORIES));
+    }
+
+    public Map<String, Object> dashboard(DataVersion version, Supplier<Map<String, Object>> loader) {
+        return load(dashboardCache, new Key(version.profileId(), version.version(), CacheConfig.DASHBOARD), loader);
+    }
+
+    /** type is INCOME, EXPENSE, or ALL_TYPES for the unfiltered list. */
+    public List<CategoryDTO> categories(DataVersion version, String type, Supplier<List<CategoryDTO>> loader) {
+        return load(categoriesCache, new Key(version.profileId(), version.version(), type), loader);
+    }
+
+    public Map<String, Stats> stats() {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        stats.put(CacheConfig.DASHBOARD, statsOf(dashboardCache));
+        stats.put(CacheConfig.CATEGORIES, statsOf(categoriesCache));
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${cache.stats.log-interval-ms:900000}", initialDelayString = "${cache.stats.log-interval-ms:900000}")
+    void logStats() {
+        stats().forEach((name, s) -> log.info("Cache '{}': hitRatio={} hits={} misses={} evictions={} size={}",
+                name, String.format("%.3f", s.hitRatio()), s.hits(), s.misses(), s.evictions(), s.size()));
+    }
+
+    private static <T> T load(Cache cache, Object key, Supplier<T> loader) {
+        try {
+            return cache.get(key, loader::get);
+        } catch (Cache.ValueRetrievalException e) {
+            // Spring wraps loader failures; rethrow the original so BaseException handlers still apply
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private static Stats statsOf(Cache cache) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = ((CaffeineCache) cache).getNativeCache();
+        CacheStats s = nativeCache.stats();
+        return new Stats(s.hitCount(), s.missCount(), s.hitRate(), s.evictionCount(), nativeCache.estimatedSize());
+    }
+
+    // part tells a profile's category lists apart (INCOME, EXPENSE, ALL_TYPES)
+    private record Key(Long profileId, long version, String part) {}
+
+    /** evictions counts size/TTL evictions, which includes every superseded version. */
+    public record Stats(long hits, long misses, double hitRatio, long evictions, long size) {}
+}
@@ -5,21 +5,21 @@ import in.bushansirgur.moneymanager.dto.ProfileDTO;
 import in.bushansirgur.moneymanager.entity.ProfileEntity;
 import in.bushansirgur.moneymanager.exception.DuplicateResourceException;
 import in.bushansirgur.moneymanager.exception.ResourceNotFoundException;
+import in.bushansirgur.moneymanager.exception.ServiceUnavailableException;
 import in.bushansirgur.moneymanager.exception.UnauthorizedException;
 import in.bushansirgur.moneymanager.exception.ValidationException;
 import in.bushansirgur.moneymanager.repository.ProfileRepository;
+import in.bushansirgur.moneymanager.security.AuthenticatedProfile;
+import in.bushansirgur.moneymanager.security.TokenVersionRegistry;
 import in.bushansirgur.moneymanager.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
@@ -33,9 +33,10 @@ public class ProfileService {
 
     private final ProfileRepository profileRepository;
     private final EmailService emailService;
-    private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final CurrentProfileHolder currentProfileHolder;
 
     @Value("${app.activation.url}")
     private String activationURL;
@@ -117,10 +118,13 @@ public class ProfileService {
             throw new ValidationException("token", "This reset link has expired. Please request a new one.");
         }
 
-        profile.setPassword(passwordEncoder.encode(newPassword));
+        profile.setPassword(passwordHashingService.encode(newPassword));
         profile.setResetPasswordToken(null);
         profile.setResetPasswordTokenExpiry(null);
-        profileRepository.save(profile);
+        // Anyone holding a token for this account (including whoever triggered the reset) is logged out
+        profile.setTokenVersion(TokenVersionRegistry.versionOf(profile) + 1);
+        profile = profileRepository.save(profile);
+        tokenVersionRegistry.update(profile.getId(), profile.getTokenVersion());
     }
 
     public ProfileDTO updateName(String fullName) {
@@ -129,11 +133,15 @@ public class ProfileService {
         }
         ProfileEntity currentProfile = getCurrentProfile();
         currentProfile.setFullName(fullName.trim());
-        currentProfile = profileRepository.save(currentProfile);
+        currentProfile = saveCurrentProfile(currentProfile);
         return toDTO(currentProfile);
     }
 
-    public void changePassword(String oldPassword, String newPassword) {
+    /**
+     * Changes the password and invalidates every token issued before the change.
+     * Returns a fresh token so the session that made the change stays logged in.
+     */
+    public String changePassword(String oldPassword, String newPassword) {
         if (oldPassword == null || oldPassword.trim().isEmpty()) {
             throw new ValidationException("oldPassword", "Current password is required");
         }
@@ -141,11 +149,14 @@ public class ProfileService {
             throw new ValidationException("newPassword", "New password must be at least 6 characters");
         }
         ProfileEntity currentProfile = getCurrentProfile();
-        if (!passwordEncoder.matches(oldPassword, currentProfile.getPassword())) {
+        if (!passwordHashingService.matches(oldPassword, currentProfile.getPassword())) {
             throw new ValidationException("oldPassword", "Current password is incorrect");
         }
-        currentProfile.setPassword(passwordEncoder.encode(newPassword));
-        profileRepository.save(currentProfile);
+        currentProfile.setPassword(passwordHashingService.encode(newPassword));
+        currentProfile.setTokenVersion(TokenVersionRegistry.versionOf(currentProfile) + 1);
+        currentProfile = saveCurrentProfile(currentProfile);
+        tokenVersionRegistry.update(currentProfile.getId(), currentProfile.getTokenVersion());
+        return jwtUtil.generateToken(currentProfile.getEmail(), currentProfile.getId(), currentProfile.getTokenVersion());
     }
 
     public boolean activateProfile(String activationToken) {
@@ -154,25 +165,61 @@ public class ProfileService {
                     profile.setIsActive(true);
                     profile.setActivationToken(null);
                     profileRepository.save(profile);
+                    tokenVersionRegistry.evict(profile.getId());
                     return true;
                 })
                 .orElse(false);
     }
 
-    public boolean isAccountActive(String email) {
-        return profileRepository.findByEmail(email)
-                .map(ProfileEntity::getIsActive)
-                .orElse(false);
+    /**
+     * Id of the authenticated profile, straight from the verified JWT claims.
+     * No database access — prefer this over getCurrentProfile() when only the id is needed.
+     */
+    public Long getCurrentProfileId() {
+        return getCurrentPrincipal().profileId();
     }
 
-    public boolean emailExists(String email) {
-        return profileRepository.findByEmail(email).isPresent();
+    /**
+     * Uninitialised JPA reference to the current profile, for use as the owner of new
+     * rows inside a transaction. Only the id is available without triggering a load.
+     */
+    public ProfileEntity getCurrentProfileReference() {
+        return profileRepository.getReferenceById(getCurrentProfileId());
     }
 
+    /**
+     * Loads the current profile at most once per HTTP request — later calls from any
+     * service reuse the instance held by {@link CurrentProfileHolder}.
+     */
     public ProfileEntity getCurrentProfile() {
+        // Outside a web request (scheduled jobs, async work) there is no request scope to memoize in
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return loadCurrentProfile();
+        }
+        return currentProfileHolder.getOrLoad(this::loadCurrentProfile);
+    }
+
+    private ProfileEntity loadCurrentProfile() {
+        AuthenticatedProfile principal = getCurrentPrincipal();
+        return profileRepository.findById(principal.profileId())
+                .orElseThrow(() -> new UsernameNotFoundException("Profile not found with email: " + principal.email()));
+    }
+
+    private ProfileEntity saveCurrentProfile(ProfileEntity profile) {
+        ProfileEntity saved = profileRepository.save(profile);
+        if (RequestContextHolder.getRequestAttributes() != null) {
+            currentProfileHolder.replace(saved);
+        }
+        return saved;
+    }
+
+    private AuthenticatedProfile getCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        return profileRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new UsernameNotFoundException("Profile not found with email: " + authentication.getName()));
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedProfile principal)) {
+            throw new in.bushansirgur.moneymanager.exception.AuthenticationException(
+                    "No authenticated profile found for this request. Please login again.");
+        }
+        return principal;
     }
 
     public ProfileDTO getPublicProfile(String email) {
@@ -194,7 +241,7 @@ public class ProfileService {
         if (profileDTO.getProfileImageUrl() != null) {
             currentProfile.setProfileImageUrl(profileDTO.getProfileImageUrl());
         }
-        currentProfile = profileRepository.save(currentProfile);
+        currentProfile = saveCurrentProfile(currentProfile);
         return toDTO(currentProfile);
     }
 
@@ -206,22 +253,18 @@ public class ProfileService {
             throw new ValidationException("password", "Password is required");
         }
         String normalizedEmail = authDTO.getEmail().toLowerCase().trim();
-        if (!emailExists(normalizedEmail)) {
-            throw new ResourceNotFoundException("No account found with email '" + normalizedEmail + "'. Please register first.");
-        }
-        if (!isAccountActive(normalizedEmail)) {
+
+        // One read serves every check below
+        ProfileEntity profile = profileRepository.findByEmail(normalizedEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("No account found with email '" + normalizedEmail + "'. Please register first."));
+        if (!Boolean.TRUE.equals(profile.getIsActive())) {
             throw new ValidationException("account", "Account is not activated. Please check your email and activate your account first.");
         }
-        try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(normalizedEmail, authDTO.getPassword())
-            );
-        } catch (BadCredentialsException e) {
+        if (!passwordHashingService.matches(authDTO.getPassword(), profile.getPassword())) {
             throw new UnauthorizedException("Incorrect password. Please try again.");
         }
-        ProfileEntity profile = profileRepository.findByEmail(normalizedEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        String token = jwtUtil.generateToken(normalizedEmail);
+        rehashIfOutdated(profile, authDTO.getPassword());
+        String token = jwtUtil.generateToken(profile.getEmail(), profile.getId(), TokenVersionRegistry.versionOf(profile));
         Map<String, Object> response = new LinkedHashMap<>();
         response.put("token", token);
         response.put("id", profile.getId());
@@ -233,6 +276,24 @@ public class ProfileService {
         return response;
     }
 
+    /**
+     * Re-encodes a hash stored with an older algorithm or a lower cost than the one
+     * calibrated for this machine. Only possible right after a successful login, the
+     * one moment the raw password is known. Best effort — a busy hashing pool just
+     * means we try again on the next login.
+     */
+    private void rehashIfOutdated(ProfileEntity profile, String rawPassword) {
+        if (!passwordHashingService.needsRehash(profile.getPassword())) {
+            return;
+        }
+        try {
+            profile.setPassword(passwordHashingService.encode(rawPassword));
+            profileRepository.save(profile);
+        } catch (ServiceUnavailableException e) {
+            log.debug("Skipping password rehash for profile {}: hashing pool busy", profile.getId());
+        }
+    }
+
     private boolean isValidEmail(String email) {
         return email != null && email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
     }
@@ -242,7 +303,7 @@ public class ProfileService {
                 .id(profileDTO.getId())
                 .fullName(profileDTO.getFullName())
                 .email(profileDTO.getEmail())
-                .password(passwordEncoder.encode(profileDTO.getPassword()))
+                .password(passwordHashingService.encode(profileDTO.getPassword()))
                 .profileImageUrl(profileDTO.getProfileImageUrl())
                 .createdAt(profileDTO.getCreatedAt())
                 .updatedAt(profileDTO.getUpdatedAt())
@@ -0,0 +1,55 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.dto.FilterPageDTO;
+import in.bushansirgur.moneymanager.dto.FilterPageRequest;
+import in.bushansirgur.moneymanager.dto.KeywordMatch;
+import in.bushansirgur.moneymanager.dto.TransactionViewRow;
+import in.bushansirgur.moneymanager.repository.TransactionViewRepository;
+import in.bushansirgur.moneymanager.util.KeysetCursorCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * /filter with type "all": incomes and expenses merged and ordered by one database query
+ * (see TransactionViewRepository), as a plain list or in keyset pages.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionViewService {
+
+    private final TransactionViewRepository transactionViewRepository;
+    private final ProfileService profileService;
+    private final KeysetCursorCodec cursorCodec;
+
+    @Transactional(readOnly = true)
+    public List<TransactionViewRow> filterAll(LocalDateTime startDate, LocalDateTime endDate, String keyword,
+                                              String sortField, Sort.Direction direction) {
+        Long profileId = profileService.getCurrentProfileId();
+        return transactionViewRepository.findRows(profileId, startDate, endDate,
+                KeywordMatch.of(keyword), sortField, direction, null, null);
+    }
+
+    // Cursor ids are TransactionViewRow.rowKey(), not table ids
+    @Transactional(readOnly = true)
+    public FilterPageDTO<TransactionViewRow> filterAllPage(FilterPageRequest request) {
+        Long profileId = profileService.getCurrentProfileId();
+        List<TransactionViewRow> rows = transactionViewRepository.findRows(profileId, request.startDate(), request.endDate(),
+                KeywordMatch.of(request.keyword()),
+                request.sortField(), request.direction(), request.after(), request.limit() + 1);
+        return KeysetPages.toPage(rows, request.limit(),
+                last -> cursorCodec.encode(request.cursorAfter(sortValue(last, request.sortField()), last.rowKey()), request.filterKey()));
+    }
+
+    private static Object sortValue(TransactionViewRow row, String sortField) {
+        return switch (sortField) {
+            case "amount" -> row.amount();
+            case "name" -> row.name();
+            default -> row.date();
+        };
+    }
+}
@@ -0,0 +1,168 @@
+package in.bushansirgur.moneymanager.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * RFC 4180 CSV (UTF-8, CRLF line ends, header row), optionally gzip-compressed, written as a
+ * stream. Per row it allocates nothing beyond what the cells themselves are: strings are
+ * copied into the writer's buffer in place (runs between quotes when a value needs quoting),
+ * and integers are rendered into a reused digit buffer. Only BigDecimal goes through
+ * toPlainString().
+ *
+ * A field is quoted only when it contains a comma, a double quote, CR or LF; embedded quotes
+ * are doubled. null is an empty field.
+ *
+ * Text that a spreadsheet would take for a formula (starting with =, +, -, @, tab or CR) gets a
+ * leading apostrophe, so a transaction named =HYPERLINK(...) opens as text, not as a live
+ * formula. Only String cells: numbers are written as they are, negative ones included.
+ */
+public final class CsvStreamWriter implements SheetWriter {
+
+    private final OutputStream out;
+    private final GZIPOutputStream gzip;
+    private final Writer writer;
+    // Long.MIN_VALUE is 20 chars with the sign
+    private final char[] digits = new char[20];
+
+    /** Writes the header row and flushes so the client sees bytes. */
+    public CsvStreamWriter(OutputStream out, boolean compress, String... headers) throws IOException {
+        this.out = out;
+        // syncFlush: flush() pushes every complete row out instead of waiting for a full deflate block
+        this.gzip = compress ? new GZIPOutputStream(new Unclosable(out), 64 * 1024, true) : null;
+        this.writer = new BufferedWriter(new OutputStreamWriter(compress ? gzip : out, StandardCharsets.UTF_8), 16 * 1024);
+        row((Object[]) headers);
+        flush();
+    }
+
+    @Override
+    public void row(Object... cells) throws IOException {
+        for (int col = 0; col < cells.length; col++) {
+            if (col > 0) {
+                writer.write(',');
+            }
+            Object value = cells[col];
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof Long || value instanceof Integer) {
+                writeLong(((Number) value).longValue());
+            } else if (value instanceof BigDecimal decimal) {
+                writer.write(decimal.toPlainString());
+            } else {
+                writeField(value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /** Ends the document (and the gzip stream) but leaves the caller's stream open. */
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+        if (gzip != null) {
+            // Unclosable keeps the caller's stream open while the deflater is released
+            gzip.close();
+        }
+        out.flush();
+    }
+
+    private void writeField(String text) throws IOException {
+        boolean quoted = needsQuotes(text);
+        if (quoted) {
+            writer.write('"');
+        }
+        if (isFormulaTrigger(text)) {
+            writer.write('\'');
+        }
+        if (!quoted) {
+            writer.write(text, 0, text.length());
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                // Write through the quote, then start the next run at it: the quote goes out twice
+                writer.write(text, start, i + 1 - start);
+                start = i;
+            }
+        }
+        writer.write(text, start, text.length() - start);
+        writer.write('"');
+    }
+
+    private static boolean isFormulaTrigger(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        char first = text.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+
+    private static boolean needsQuotes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == ',' || ch == '"' || ch == '\n' || ch == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writer.write(Long.toString(value));
+            return;
+        }
+        int pos = digits.length;
+        long rest = Math.abs(value);
+        do {
+            digits[--pos] = (char) ('0' + rest % 10);
+            rest /= 10;
+        } while (rest != 0);
+        if (value < 0) {
+            digits[--pos] = '-';
+        }
+        writer.write(digits, pos, digits.length - pos);
+    }
+
+    // Lets the gzip stream be closed (ending its Deflater) without closing the response
+    private static final class Unclosable extends OutputStream {
+        private final OutputStream out;
+
+        Unclosable(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package in.bushansirgur.moneymanager.util;
+
+import in.bushansirgur.moneymanager.exception.ValidationException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The file formats every /excel export can be produced in. XLSX stays the default; CSV is
+ * far cheaper to produce and to parse for integrations, and csv.gz shrinks it several-fold
+ * on the wire and on disk.
+ */
+public enum ExportFormat {
+
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    CSV("csv", "text/csv;charset=UTF-8"),
+    CSV_GZ("csv.gz", "application/gzip");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    /** Also the value of the format= parameter. */
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public SheetWriter open(OutputStream out, String sheetName, String... headers) throws IOException {
+        return switch (this) {
+            case XLSX -> new XlsxStreamWriter(out, sheetName, headers);
+            case CSV -> new CsvStreamWriter(out, false, headers);
+            case CSV_GZ -> new CsvStreamWriter(out, true, headers);
+        };
+    }
+
+    /**
+     * format= wins when given; otherwise the first acceptable type in the Accept header
+     * (by quality) that names one of the formats. Anything else, wildcards included, is XLSX.
+     */
+    public static ExportFormat resolve(String format, String accept) {
+        if (format != null && !format.isBlank()) {
+            String requested = format.trim().toLowerCase(Locale.ROOT);
+            for (ExportFormat candidate : values()) {
+                if (candidate.extension.equals(requested)) {
+                    return candidate;
+                }
+            }
+            throw new ValidationException("format",
+                    "Invalid format '" + format + "'. Valid values are: 'xlsx', 'csv', 'csv.gz'");
+        }
+        if (accept == null || accept.isBlank()) {
+            return XLSX;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return XLSX;
+        }
+        // Stable sort: equal quality keeps the client's order
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : acceptable) {
+            ExportFormat named = type.getQualityValue() > 0 ? forMediaType(type.getType() + "/" + type.getSubtype()) : null;
+            if (named != null) {
+                return named;
+            }
+        }
+        return XLSX;
+    }
+
+    private static ExportFormat forMediaType(String type) {
+        return switch (type) {
+            case "text/csv" -> CSV;
+            case "application/gzip", "application/x-gzip" -> CSV_GZ;
+            case "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet" -> XLSX;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package in.bushansirgur.moneymanager.util;
+
+import in.bushansirgur.moneymanager.exception.ValidationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position after the last row of a keyset page: the sort column's value plus the row id
+ * as tie-breaker. Clients only ever see it as the signed token KeysetCursorCodec makes of it.
+ */
+public record KeysetCursor(String sortField, Object value, long id) {
+
+    String formatValue() {
+        return value instanceof BigDecimal amount ? amount.toPlainString() : String.valueOf(value);
+    }
+
+    static Object parseValue(String sortField, String raw) {
+        try {
+            return switch (sortField) {
+                case "date" -> LocalDateTime.parse(raw);
+                case "amount" -> new BigDecimal(raw);
+                case "name" -> raw;
+                default -> throw invalid();
+            };
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    static ValidationException invalid() {
+        return new ValidationException("cursor", "Invalid cursor, or one issued for a different filter. Start again without a cursor.");
+    }
+}
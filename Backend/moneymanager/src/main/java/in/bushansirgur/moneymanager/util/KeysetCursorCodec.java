@@ -0,0 +1,96 @@
+package in.bushansirgur.moneymanager.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Turns a KeysetCursor into the opaque token /filter hands out as nextCursor, and back.
+ *
+ * The token is the cursor's fields plus an HMAC-SHA256 over them and the filter it was issued
+ * for (filterKey: type, date range, keyword, sort as the client sent them). Only this server
+ * can mint one, so an edited token — or one replayed against a different filter — is rejected
+ * instead of silently returning the wrong slice. The key is derived from jwt.secret, so every
+ * instance accepts every other's cursors and they survive restarts.
+ */
+@Component
+public class KeysetCursorCodec {
+
+    private static final String VERSION = "k2";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecretKeySpec key;
+
+    public KeysetCursorCodec(@Value("${jwt.secret}") String secret) {
+        byte[] secretBytes;
+        try {
+            secretBytes = Base64.getDecoder().decode(secret);
+        } catch (IllegalArgumentException e) {
+            secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        // A key of its own, so a cursor signature can never stand in for a JWT one
+        this.key = new SecretKeySpec(hmac(new SecretKeySpec(secretBytes, ALGORITHM), "keyset-cursor"), ALGORITHM);
+    }
+
+    /**
+     * Canonical form of the filter parameters: each part as its length and text, enums by
+     * name() and null as "-", so equal filters give equal keys on every JVM.
+     */
+    public static String filterKey(Object... filterParts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : filterParts) {
+            String text = part == null ? null : part instanceof Enum<?> constant ? constant.name() : part.toString();
+            key.append(text == null ? "-" : text.length() + ":" + text).append(';');
+        }
+        return key.toString();
+    }
+
+    public String encode(KeysetCursor cursor, String filterKey) {
+        String payload = String.join("|", VERSION, cursor.sortField(), Long.toString(cursor.id()), cursor.formatValue());
+        return BASE64.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "."
+                + BASE64.encodeToString(hmac(key, filterKey + "\n" + payload));
+    }
+
+    public KeysetCursor decode(String token, String expectedSortField, String filterKey) {
+        int dot = token.indexOf('.');
+        String payload;
+        byte[] signature;
+        try {
+            payload = new String(Base64.getUrlDecoder().decode(token.substring(0, Math.max(dot, 0))), StandardCharsets.UTF_8);
+            signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw KeysetCursor.invalid();
+        }
+        if (dot < 0 || !MessageDigest.isEqual(signature, hmac(key, filterKey + "\n" + payload))) {
+            throw KeysetCursor.invalid();
+        }
+        // The value goes last and may itself contain '|', hence the split limit
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length != 4 || !VERSION.equals(parts[0]) || !expectedSortField.equals(parts[1])) {
+            throw KeysetCursor.invalid();
+        }
+        try {
+            return new KeysetCursor(parts[1], KeysetCursor.parseValue(parts[1], parts[3]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw KeysetCursor.invalid();
+        }
+    }
+
+    private static byte[] hmac(SecretKeySpec key, String data) {
+        try {
+            // Mac isn't thread-safe; one per call costs far less than the page query it guards
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
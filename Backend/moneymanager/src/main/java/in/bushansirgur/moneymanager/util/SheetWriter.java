@@ -0,0 +1,17 @@
+package in.bushansirgur.moneymanager.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A streaming, single-sheet tabular writer: rows go out as they are appended and close()
+ * finishes the document without closing the underlying stream. See ExportFormat.
+ */
+public interface SheetWriter extends Closeable {
+
+    /** Appends one row; cells are Number, String (or anything else, via toString) or null. */
+    void row(Object... cells) throws IOException;
+
+    /** Pushes buffered rows to the underlying stream. */
+    void flush() throws IOException;
+}
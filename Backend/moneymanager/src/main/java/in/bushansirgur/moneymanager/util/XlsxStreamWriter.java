@@ -0,0 +1,233 @@
+package in.bushansirgur.moneymanager.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * .xlsx written as a true stream: the fixed package parts go out first, then each row is
+ * deflated straight into the caller's stream as it is appended. Nothing is
+ * held per row and nothing is spooled to disk, so the first bytes leave before the second
+ * row is read — which SXSSF can't do, as it only assembles the zip once the sheet is done.
+ *
+ * Cells are numbers or inline strings (no shared-string table to keep in memory); null
+ * leaves the cell empty. close() finishes the package but leaves the caller's stream open.
+ *
+ * A workbook with several sheets declares their names up front (they go into the package
+ * parts) and writes them one after the other: nextSheet() ends the current one.
+ */
+public final class XlsxStreamWriter implements SheetWriter {
+
+    // Hard limit of the format; past it Excel refuses to open the file
+    public static final int MAX_ROWS = 1_048_576;
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private static final String CONTENT_TYPES = XML_HEADER + """
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+            <Default Extension="xml" ContentType="application/xml"/>\
+            <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>\
+            <Override PartName="/xl/styles.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml"/>\
+            %s</Types>""";
+    private static final String SHEET_CONTENT_TYPE =
+            "<Override PartName=\"/xl/worksheets/sheet%d.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>";
+
+    private static final String ROOT_RELS = XML_HEADER + """
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>\
+            </Relationships>""";
+
+    private static final String WORKBOOK = XML_HEADER + """
+            <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" \
+            xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">\
+            <sheets>%s</sheets>\
+            </workbook>""";
+    private static final String WORKBOOK_SHEET = "<sheet name=\"%s\" sheetId=\"%d\" r:id=\"rId%d\"/>";
+
+    // Sheets are rId1..rIdN, the stylesheet comes after them
+    private static final String WORKBOOK_RELS = XML_HEADER + """
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+            %s<Relationship Id="rId%d" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles" Target="styles.xml"/>\
+            </Relationships>""";
+    private static final String SHEET_REL =
+            "<Relationship Id=\"rId%d\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet%d.xml\"/>";
+
+    // The smallest stylesheet Excel accepts without a repair prompt
+    private static final String STYLES = XML_HEADER + """
+            <styleSheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">\
+            <fonts count="1"><font><sz val="11"/><name val="Calibri"/></font></fonts>\
+            <fills count="2"><fill><patternFill patternType="none"/></fill><fill><patternFill patternType="gray125"/></fill></fills>\
+            <borders count="1"><border><left/><right/><top/><bottom/><diagonal/></border></borders>\
+            <cellStyleXfs count="1"><xf numFmtId="0" fontId="0" fillId="0" borderId="0"/></cellStyleXfs>\
+            <cellXfs count="1"><xf numFmtId="0" fontId="0" fillId="0" borderId="0" xfId="0"/></cellXfs>\
+            </styleSheet>""";
+
+    private static final String SHEET_START = XML_HEADER
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>";
+    private static final String SHEET_END = "</sheetData></worksheet>";
+
+    private final ZipOutputStream zip;
+    private final Writer sheet;
+    private final int sheetCount;
+    private int sheetNumber;
+    private int rowCount;
+
+    /** Writes the package parts and the header row, then flushes so the client sees bytes. */
+    public XlsxStreamWriter(OutputStream out, String sheetName, String... headers) throws IOException {
+        this(out, List.of(sheetName), headers);
+    }
+
+    /** Same, for a workbook of the given sheets; the first one is started with the headers. */
+    public XlsxStreamWriter(OutputStream out, List<String> sheetNames, String... headers) throws IOException {
+        zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        sheetCount = sheetNames.size();
+        StringBuilder contentTypes = new StringBuilder();
+        StringBuilder sheets = new StringBuilder();
+        StringBuilder rels = new StringBuilder();
+        for (int i = 1; i <= sheetCount; i++) {
+            contentTypes.append(SHEET_CONTENT_TYPE.formatted(i));
+            sheets.append(WORKBOOK_SHEET.formatted(escape(sheetNames.get(i - 1)), i, i));
+            rels.append(SHEET_REL.formatted(i, i));
+        }
+        writeEntry("[Content_Types].xml", CONTENT_TYPES.formatted(contentTypes));
+        writeEntry("_rels/.rels", ROOT_RELS);
+        writeEntry("xl/workbook.xml", WORKBOOK.formatted(sheets));
+        writeEntry("xl/_rels/workbook.xml.rels", WORKBOOK_RELS.formatted(rels, sheetCount + 1));
+        writeEntry("xl/styles.xml", STYLES);
+        // Never closed itself: closing it would close the zip and with it the caller's stream
+        sheet = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 16 * 1024);
+        startSheet(headers);
+        flush();
+    }
+
+    /** Ends the current sheet and starts the next declared one, with these headers (if any). */
+    public void nextSheet(String... headers) throws IOException {
+        if (sheetNumber == sheetCount) {
+            throw new IllegalStateException("All " + sheetCount + " declared sheets have been written");
+        }
+        endSheet();
+        startSheet(headers);
+    }
+
+    @Override
+    public void row(Object... cells) throws IOException {
+        if (rowCount == MAX_ROWS) {
+            throw new IllegalStateException("An .xlsx sheet holds at most " + MAX_ROWS + " rows");
+        }
+        rowCount++;
+        sheet.write("<row r=\"");
+        sheet.write(Integer.toString(rowCount));
+        sheet.write("\">");
+        for (int col = 0; col < cells.length; col++) {
+            Object value = cells[col];
+            if (value == null) {
+                continue;
+            }
+            sheet.write("<c r=\"");
+            sheet.write(columnName(col));
+            sheet.write(Integer.toString(rowCount));
+            if (value instanceof Number number) {
+                sheet.write("\"><v>");
+                sheet.write(number instanceof BigDecimal decimal ? decimal.toPlainString() : number.toString());
+                sheet.write("</v></c>");
+            } else {
+                sheet.write("\" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                sheet.write(escape(value.toString()));
+                sheet.write("</t></is></c>");
+            }
+        }
+        sheet.write("</row>");
+    }
+
+    /** Rows written so far to the current sheet, header included. */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Pushes buffered rows through the deflater to the caller's stream. The deflater still
+     * holds back a partial block, so this bounds latency rather than forcing every byte out.
+     */
+    @Override
+    public void flush() throws IOException {
+        sheet.flush();
+        zip.flush();
+    }
+
+    /** Ends the current sheet, writes any declared sheet not reached as empty, and finishes the package. */
+    @Override
+    public void close() throws IOException {
+        endSheet();
+        while (sheetNumber < sheetCount) {
+            startSheet();
+            endSheet();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    private void startSheet(String... headers) throws IOException {
+        sheetNumber++;
+        rowCount = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetNumber + ".xml"));
+        sheet.write(SHEET_START);
+        if (headers.length > 0) {
+            row((Object[]) headers);
+        }
+    }
+
+    private void endSheet() throws IOException {
+        sheet.write(SHEET_END);
+        sheet.flush();
+        zip.closeEntry();
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    // 0 → A, 25 → Z, 26 → AA
+    private static String columnName(int index) {
+        StringBuilder name = new StringBuilder();
+        for (int i = index; i >= 0; i = i / 26 - 1) {
+            name.insert(0, (char) ('A' + i % 26));
+        }
+        return name.toString();
+    }
+
+    // XML escaping; control characters other than tab/CR/LF aren't legal in XML 1.0 and are dropped
+    private static String escape(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            String replacement = switch (ch) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                default -> ch < 0x20 && ch != '\t' && ch != '\n' && ch != '\r' ? "" : null;
+            };
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(ch);
+                }
+            }
+        }
+        return escaped != null ? escaped.toString() : text;
+    }
+}
@@ -0,0 +1,85 @@
+-- Baseline: the schema as the JPA entities map it today.
+-- Written to be a no-op on databases that already have this schema (from ddl-auto=update plus
+-- the changes that used to be applied by hand), so existing installs can adopt Flyway without a
+-- dump/restore (spring.flyway.baseline-on-migrate=true, baseline-version=0).
+
+CREATE TABLE IF NOT EXISTS profile (
+    id                          BIGSERIAL PRIMARY KEY,
+    full_name                   VARCHAR(255),
+    email                       VARCHAR(255) UNIQUE,
+    password                    VARCHAR(255),
+    profile_image_url           VARCHAR(255),
+    created_at                  TIMESTAMP(6),
+    updated_at                  TIMESTAMP(6),
+    is_active                   BOOLEAN,
+    activation_token            VARCHAR(255),
+    reset_password_token        VARCHAR(255),
+    reset_password_token_expiry TIMESTAMP(6),
+    token_version               INTEGER
+);
+
+-- Columns added after the first release
+ALTER TABLE profile ADD COLUMN IF NOT EXISTS reset_password_token VARCHAR(255);
+ALTER TABLE profile ADD COLUMN IF NOT EXISTS reset_password_token_expiry TIMESTAMP(6);
+ALTER TABLE profile ADD COLUMN IF NOT EXISTS token_version INTEGER;
+UPDATE profile SET token_version = 0 WHERE token_version IS NULL;
+
+CREATE TABLE IF NOT EXISTS tbl_categories (
+    id         BIGSERIAL PRIMARY KEY,
+    name       VARCHAR(255),
+    type       VARCHAR(255),
+    icon       VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    profile_id BIGINT NOT NULL REFERENCES profile(id)
+);
+
+CREATE TABLE IF NOT EXISTS tbl_incomes (
+    id          BIGSERIAL PRIMARY KEY,
+    name        VARCHAR(255),
+    icon        VARCHAR(255),
+    date        TIMESTAMP(6),
+    amount      NUMERIC(38, 2),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    category_id BIGINT NOT NULL REFERENCES tbl_categories(id),
+    profile_id  BIGINT NOT NULL REFERENCES profile(id)
+);
+
+CREATE TABLE IF NOT EXISTS tbl_expenses (
+    id          BIGSERIAL PRIMARY KEY,
+    name        VARCHAR(255),
+    icon        VARCHAR(255),
+    date        TIMESTAMP(6),
+    amount      NUMERIC(38, 2),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    category_id BIGINT NOT NULL REFERENCES tbl_categories(id),
+    profile_id  BIGINT NOT NULL REFERENCES profile(id)
+);
+
+-- Running totals per profile
+CREATE TABLE IF NOT EXISTS tbl_profile_balances (
+    profile_id    BIGINT PRIMARY KEY REFERENCES profile(id) ON DELETE CASCADE,
+    total_income  NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    total_expense NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    income_count  BIGINT NOT NULL DEFAULT 0,
+    expense_count BIGINT NOT NULL DEFAULT 0,
+    updated_at    TIMESTAMP(6)
+);
+
+INSERT INTO tbl_profile_balances (profile_id, total_income, total_expense, income_count, expense_count, updated_at)
+SELECT p.id,
+       COALESCE((SELECT SUM(i.amount) FROM tbl_incomes i WHERE i.profile_id = p.id), 0),
+       COALESCE((SELECT SUM(e.amount) FROM tbl_expenses e WHERE e.profile_id = p.id), 0),
+       (SELECT COUNT(*) FROM tbl_incomes i WHERE i.profile_id = p.id),
+       (SELECT COUNT(*) FROM tbl_expenses e WHERE e.profile_id = p.id),
+       NOW()
+FROM profile p
+ON CONFLICT (profile_id) DO NOTHING;
+
+-- Per-profile ETag versions
+CREATE TABLE IF NOT EXISTS tbl_profile_data_versions (
+    profile_id BIGINT PRIMARY KEY REFERENCES profile(id) ON DELETE CASCADE,
+    version    BIGINT NOT NULL
+);
@@ -0,0 +1,15 @@
+-- Indexed substring search for the /filter keyword.
+-- The filter predicate is LOWER(name) LIKE '%kw%'; a B-tree can't serve a leading wildcard,
+-- but a trigram GIN index on the same expression can. btree_gin lets profile_id live in the
+-- same index, so one index scan returns only the caller's matching rows.
+-- Keywords shorter than 3 characters have no trigrams; the planner falls back to the
+-- profile_id/date indexes for those.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+CREATE INDEX IF NOT EXISTS idx_incomes_profile_name_trgm
+    ON tbl_incomes USING gin (profile_id, lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_expenses_profile_name_trgm
+    ON tbl_expenses USING gin (profile_id, lower(name) gin_trgm_ops);
@@ -0,0 +1,16 @@
+-- Transaction dates carry a time of day.
+-- Only databases created before that change still have DATE columns; everywhere else this is a no-op.
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'tbl_incomes'
+                 AND column_name = 'date' AND data_type = 'date') THEN
+        ALTER TABLE tbl_incomes ALTER COLUMN date TYPE TIMESTAMP(6) USING date::timestamp;
+    END IF;
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'tbl_expenses'
+                 AND column_name = 'date' AND data_type = 'date') THEN
+        ALTER TABLE tbl_expenses ALTER COLUMN date TYPE TIMESTAMP(6) USING date::timestamp;
+    END IF;
+END $$;
@@ -0,0 +1,30 @@
+-- flyway:executeInTransaction=false
+-- Indexes for every query in IncomeRepository, ExpenseRepository and CategoryRepository.
+-- RepositoryIndexUsageTest runs EXPLAIN on each of those queries against these migrations and
+-- fails if any of them falls back to a sequential scan; add the index here when adding a query.
+--
+-- Built CONCURRENTLY so writes to the tables carry on while the indexes build. PostgreSQL does
+-- not allow that inside a transaction, hence the directive on the first line; a failed build
+-- leaves an INVALID index behind, which has to be dropped by hand before the migration reruns.
+
+-- incomes / expenses, (profile_id, date, id) INCLUDE (amount):
+--   list, top 5 and date-range filters (forward or backward scan), keyset pages sorted by date,
+--   and -- index-only, thanks to INCLUDE -- SUM(amount)/COUNT per profile and the nightly
+--   GROUP BY profile_id balance check.
+-- Supersedes the uncovered idx_*_profile_date_id that older installs created by hand; the new
+-- index is in place before the old one is dropped, so date queries never lose their index.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_incomes_profile_date_id_amount ON tbl_incomes (profile_id, date, id) INCLUDE (amount);
+DROP INDEX CONCURRENTLY IF EXISTS idx_incomes_profile_date_id;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_expenses_profile_date_id_amount ON tbl_expenses (profile_id, date, id) INCLUDE (amount);
+DROP INDEX CONCURRENTLY IF EXISTS idx_expenses_profile_date_id;
+
+-- Keyset pages sorted by amount or name
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_incomes_profile_amount_id  ON tbl_incomes  (profile_id, amount, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_incomes_profile_name_id    ON tbl_incomes  (profile_id, name, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_expenses_profile_amount_id ON tbl_expenses (profile_id, amount, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_expenses_profile_name_id   ON tbl_expenses (profile_id, name, id);
+
+-- categories: the per-type list (and, via its leading column, the full per-profile list)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_categories_profile_type ON tbl_categories (profile_id, type);
+-- categories: the duplicate-name check on create
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_categories_profile_name ON tbl_categories (profile_id, name);
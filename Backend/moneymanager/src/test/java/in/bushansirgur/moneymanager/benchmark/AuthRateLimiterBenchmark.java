@@ -0,0 +1,73 @@
+package in.bushansirgur.moneymanager.benchmark;
+
+import in.bushansirgur.moneymanager.exception.TooManyRequestsException;
+import in.bushansirgur.moneymanager.security.AuthRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-check overhead of AuthRateLimiter, measured against the BCrypt work it protects.
+ *
+ * Run locally (not part of mvn test):
+ *   mvn test-compile exec:java -Dexec.classpathScope=test
+ *       -Dexec.mainClass=in.bushansirgur.moneymanager.benchmark.AuthRateLimiterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class AuthRateLimiterBenchmark {
+
+    private AuthRateLimiter limiter;
+    private MockHttpServletRequest[] requests;
+    private String[] emails;
+
+    @Setup
+    public void setUp() {
+        // Generous limits so the benchmark measures the allowed path, which is the hot one
+        limiter = new AuthRateLimiter(1_000, 1_000_000, 1_000, 1_000_000, 10, 100_000);
+        requests = new MockHttpServletRequest[1024];
+        emails = new String[1024];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = new MockHttpServletRequest();
+            requests[i].setRemoteAddr("10.0." + (i / 256) + "." + (i % 256));
+            emails[i] = "user" + i + "@example.com";
+        }
+    }
+
+    @Benchmark
+    public boolean check() {
+        int i = ThreadLocalRandom.current().nextInt(requests.length);
+        try {
+            limiter.check(requests[i], emails[i]);
+            return true;
+        } catch (TooManyRequestsException e) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthRateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
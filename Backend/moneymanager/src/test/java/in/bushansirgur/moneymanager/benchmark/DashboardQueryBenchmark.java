@@ -0,0 +1,143 @@
+package in.bushansirgur.moneymanager.benchmark;
+
+import in.bushansirgur.moneymanager.repository.DashboardQueryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard read path against a real PostgreSQL database: the old four statements
+ * (top 5 incomes, top 5 expenses, two SUMs) merged and sorted in Java, versus the single
+ * UNION ALL statement in DashboardQueryRepository.
+ *
+ * Needs a populated database; point it at one with system properties:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test
+ *       -Dexec.mainClass=in.bushansirgur.moneymanager.benchmark.DashboardQueryBenchmark
+ *       -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/moneymanager
+ *       -Dbench.jdbc.user=postgres -Dbench.jdbc.password=... -Dbench.profile-id=1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardQueryBenchmark {
+
+    // What Hibernate issued for the old findTop5ByProfileIdOrderByDateDesc + LEFT JOIN FETCH category
+    private static final String LEGACY_TOP5 = """
+            SELECT t.id, t.name, t.icon, t.amount, t.date, t.created_at, t.updated_at, c.id AS category_id, c.name AS category_name
+            FROM %s t LEFT JOIN tbl_categories c ON c.id = t.category_id
+            WHERE t.profile_id = ? ORDER BY t.date DESC LIMIT 5
+            """;
+    private static final String LEGACY_SUM = "SELECT SUM(t.amount) FROM %s t WHERE t.profile_id = ?";
+
+    private Connection connection;
+    private long profileId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getProperty("bench.jdbc.url");
+        if (url == null) {
+            throw new IllegalStateException("Set -Dbench.jdbc.url (and user/password/profile-id) to a populated database");
+        }
+        connection = DriverManager.getConnection(url,
+                System.getProperty("bench.jdbc.user"), System.getProperty("bench.jdbc.password"));
+        profileId = Long.parseLong(System.getProperty("bench.profile-id", "1"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void legacyFourQueries(Blackhole blackhole) throws SQLException {
+        List<Object[]> recent = new ArrayList<>(10);
+        readTop5("tbl_incomes", "income", recent);
+        readTop5("tbl_expenses", "expense", recent);
+        blackhole.consume(readSum("tbl_incomes"));
+        blackhole.consume(readSum("tbl_expenses"));
+        // Same ordering the old comparator applied: date desc, nulls last
+        recent.sort(Comparator.comparing((Object[] row) -> (Timestamp) row[2],
+                Comparator.nullsFirst(Comparator.<Timestamp>naturalOrder())).reversed());
+        blackhole.consume(recent);
+    }
+
+    @Benchmark
+    public void singleUnionQuery(Blackhole blackhole) throws SQLException {
+        // NamedParameterJdbcTemplate's rewrite of SUMMARY_SQL, done by hand to keep Spring out of the loop
+        String sql = DashboardQueryRepository.SUMMARY_SQL
+                .replace(":profileId", "?")
+                .replace(":perType", "5");
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, profileId);
+            statement.setLong(2, profileId);
+            statement.setLong(3, profileId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getBigDecimal("total_income"));
+                    blackhole.consume(rs.getString("name"));
+                    blackhole.consume(rs.getTimestamp("date"));
+                }
+            }
+        }
+    }
+
+    private void readTop5(String table, String type, List<Object[]> into) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(LEGACY_TOP5.formatted(table))) {
+            statement.setLong(1, profileId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    into.add(new Object[]{type, rs.getString("name"), rs.getTimestamp("date"), rs.getString("category_name")});
+                }
+            }
+        }
+    }
+
+    private BigDecimal readSum(String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(LEGACY_SUM.formatted(table))) {
+            statement.setLong(1, profileId);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getBigDecimal(1) : null;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // The forked benchmark JVM doesn't inherit system properties, so hand the bench.* ones over
+        String[] forwarded = System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("bench."))
+                .map(name -> "-D" + name + "=" + System.getProperty(name))
+                .toArray(String[]::new);
+        new Runner(new OptionsBuilder()
+                .include(DashboardQueryBenchmark.class.getSimpleName())
+                .jvmArgsAppend(forwarded)
+                .build()).run();
+    }
+}
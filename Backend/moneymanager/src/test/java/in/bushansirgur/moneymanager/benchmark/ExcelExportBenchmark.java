@@ -0,0 +1,121 @@
+package in.bushansirgur.moneymanager.benchmark;
+
+import in.bushansirgur.moneymanager.dto.KeywordMatch;
+import in.bushansirgur.moneymanager.dto.TransactionViewRow;
+import in.bushansirgur.moneymanager.repository.TransactionViewRepository;
+import in.bushansirgur.moneymanager.service.ExcelExportService;
+import in.bushansirgur.moneymanager.service.ProfileService;
+import in.bushansirgur.moneymanager.util.ExportFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The full report (merged incomes and expenses, as the daily email and /excel/download/full
+ * write it) and the analysis workbook over 10k / 100k / 1M rows handed over one at a time, as
+ * the database cursor does, so any heap the export holds on to is the writer's own. Time per
+ * export, plus allocation from the GC profiler; setup prints the heap still retained halfway
+ * through one export, which stays flat whatever the row count. Needs no database:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test
+ *       -Dexec.mainClass=in.bushansirgur.moneymanager.benchmark.ExcelExportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx512m")
+public class ExcelExportBenchmark {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2026, 2, 1, 9, 0);
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"full", "analysis"})
+    public String report;
+
+    private Runnable halfway = () -> { };
+    private ExcelExportService service;
+
+    @Setup
+    public void setUp() throws IOException {
+        ProfileService profileService = mock(ProfileService.class);
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        service = new ExcelExportService(null, new GeneratedRows(), profileService, 500);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedHeapAfterGc(memory);
+        long[] midExport = {0};
+        halfway = () -> midExport[0] = usedHeapAfterGc(memory);
+        export();
+        halfway = () -> { };
+        System.out.printf("%n%s, %,d rows: retained heap mid-export %+,d KB%n", report, rows, (midExport[0] - baseline) >> 10);
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        return report.equals("full")
+                ? service.exportFullReportFor(7L, DATE.minusYears(2), DATE, ExportFormat.XLSX, OutputStream::nullOutputStream)
+                : service.exportFullReportAnalysis(DATE.minusYears(2), DATE, "", OutputStream::nullOutputStream);
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExcelExportBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    // Stands in for the cursor: rows are made on demand, halfway runs once at the middle row
+    private final class GeneratedRows extends TransactionViewRepository {
+
+        GeneratedRows() {
+            super(null);
+        }
+
+        @Override
+        public void forEachRow(Long profileId, LocalDateTime startDate, LocalDateTime endDate,
+                               KeywordMatch keyword,
+                               String sortField, Sort.Direction direction, int fetchSize,
+                               Consumer<TransactionViewRow> consumer) {
+            for (int i = 0; i < rows; i++) {
+                if (i == rows / 2) {
+                    halfway.run();
+                }
+                consumer.accept(new TransactionViewRow(i % 3 == 0 ? "income" : "expense", (long) i, "row-" + i, "",
+                        BigDecimal.valueOf(i, 2), DATE.minusMinutes(i), DATE, null, (long) i % 12, "Category " + i % 12));
+            }
+        }
+    }
+}
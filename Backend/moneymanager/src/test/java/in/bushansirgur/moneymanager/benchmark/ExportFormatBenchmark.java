@@ -0,0 +1,92 @@
+package in.bushansirgur.moneymanager.benchmark;
+
+import in.bushansirgur.moneymanager.util.ExportFormat;
+import in.bushansirgur.moneymanager.util.SheetWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One /excel/download/filtered export of 10k / 100k rows in each ExportFormat, written to a
+ * byte-counting sink so only the encoding is measured (the rows are prebuilt, like cells the
+ * cursor hands over). Setup prints the bytes each format produces. Needs no database:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test
+ *       -Dexec.mainClass=in.bushansirgur.moneymanager.benchmark.ExportFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportFormatBenchmark {
+
+    private static final String[] HEADERS = {"S.No", "Name", "Category", "Amount", "Date"};
+    private static final String[] NAMES = {"Groceries", "Coffee, large", "Rent", "Fuel", "Electricity bill", "Gym", "\"Team\" lunch"};
+    private static final String[] CATEGORIES = {"Food", "Housing", "Transport", "Utilities", "Health"};
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"XLSX", "CSV", "CSV_GZ"})
+    public ExportFormat format;
+
+    private Object[][] cells;
+
+    @Setup
+    public void setUp() throws IOException {
+        cells = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            cells[i] = new Object[]{(long) i + 1, NAMES[i % NAMES.length] + " " + i, CATEGORIES[i % CATEGORIES.length],
+                    BigDecimal.valueOf(i * 37L % 100_000, 2), String.format("%02d Mar 2026", i % 28 + 1)};
+        }
+        System.out.printf("%n%s, %d rows: %,d bytes%n", format, rows, export());
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        CountingStream out = new CountingStream();
+        try (SheetWriter writer = format.open(out, "Expenses", HEADERS)) {
+            for (Object[] row : cells) {
+                writer.row(row);
+            }
+        }
+        return out.bytes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExportFormatBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static final class CountingStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package in.bushansirgur.moneymanager.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The /filter keyword predicate on PostgreSQL, with and without the trigram index from
+ * V2__trigram_name_search.sql, for one profile holding 10k / 100k / 1M rows.
+ *
+ * Setup fills an unlogged scratch table (bench_keyword_search) shaped like tbl_expenses and
+ * drops it afterwards. "likeSeqScan" is the old path: bitmap scans are switched off on that
+ * connection, which is the only way PostgreSQL can use a GIN index, so it has to scan the
+ * profile's rows. Needs a database where pg_trgm and btree_gin can be created:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test
+ *       -Dexec.mainClass=in.bushansirgur.moneymanager.benchmark.KeywordSearchBenchmark
+ *       -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/moneymanager
+ *       -Dbench.jdbc.user=postgres -Dbench.jdbc.password=...
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeywordSearchBenchmark {
+
+    private static final long PROFILE_ID = 1;
+
+    private static final String QUERY = """
+            SELECT t.id, t.name FROM bench_keyword_search t
+            WHERE t.profile_id = ? AND LOWER(t.name) LIKE LOWER('%' || ? || '%')
+            """;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    // A selective keyword (a handful of rows) and a common one (about one row in eight)
+    @Param({"invoice 4242", "grocer"})
+    public String keyword;
+
+    private Connection indexed;
+    private Connection seqScan;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getProperty("bench.jdbc.url");
+        if (url == null) {
+            throw new IllegalStateException("Set -Dbench.jdbc.url (and user/password) to a scratch database");
+        }
+        indexed = DriverManager.getConnection(url, System.getProperty("bench.jdbc.user"), System.getProperty("bench.jdbc.password"));
+        seqScan = DriverManager.getConnection(url, System.getProperty("bench.jdbc.user"), System.getProperty("bench.jdbc.password"));
+        try (Statement statement = indexed.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            statement.execute("CREATE EXTENSION IF NOT EXISTS btree_gin");
+            statement.execute("DROP TABLE IF EXISTS bench_keyword_search");
+            statement.execute("CREATE UNLOGGED TABLE bench_keyword_search (id BIGSERIAL PRIMARY KEY, profile_id BIGINT NOT NULL, name VARCHAR(255))");
+            // The requested profile plus the same amount of noise from another profile
+            statement.execute("""
+                    INSERT INTO bench_keyword_search (profile_id, name)
+                    SELECT p, (ARRAY['Groceries', 'Coffee', 'Rent', 'Fuel', 'Electricity bill', 'Gym', 'Restaurant', 'Invoice'])[1 + g % 8] || ' ' || g
+                    FROM generate_series(1, %d) g, (VALUES (1), (2)) AS profiles(p)
+                    """.formatted(rows));
+            statement.execute("CREATE INDEX bench_keyword_search_trgm ON bench_keyword_search USING gin (profile_id, lower(name) gin_trgm_ops)");
+            statement.execute("ANALYZE bench_keyword_search");
+        }
+        try (Statement statement = seqScan.createStatement()) {
+            statement.execute("SET enable_bitmapscan = off");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = indexed.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_keyword_search");
+        }
+        indexed.close();
+        seqScan.close();
+    }
+
+    @Benchmark
+    public void likeSeqScan(Blackhole blackhole) throws SQLException {
+        run(seqScan, blackhole);
+    }
+
+    @Benchmark
+    public void likeTrigramIndex(Blackhole blackhole) throws SQLException {
+        run(indexed, blackhole);
+    }
+
+    private void run(Connection connection, Blackhole blackhole) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(QUERY)) {
+            statement.setLong(1, PROFILE_ID);
+            statement.setString(2, keyword);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getLong(1));
+                    blackhole.consume(rs.getString(2));
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // The forked benchmark JVM doesn't inherit system properties, so hand the bench.* ones over
+        String[] forwarded = System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("bench."))
+                .map(name -> "-D" + name + "=" + System.getProperty(name))
+                .toArray(String[]::new);
+        new Runner(new OptionsBuilder()
+                .include(KeywordSearchBenchmark.class.getSimpleName())
+                .jvmArgsAppend(forwarded)
+                .build()).run();
+    }
+}
@@ -0,0 +1,115 @@
+package in.bushansirgur.moneymanager.controller;
+
+import in.bushansirgur.moneymanager.config.CacheConfig;
+import in.bushansirgur.moneymanager.dto.DashboardSummary;
+import in.bushansirgur.moneymanager.repository.DashboardQueryRepository;
+import in.bushansirgur.moneymanager.service.DashboardService;
+import in.bushansirgur.moneymanager.service.DataVersionService;
+import in.bushansirgur.moneymanager.service.DataVersionService.DataVersion;
+import in.bushansirgur.moneymanager.service.ProfileDataCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DashboardControllerTest {
+
+    private final DashboardService dashboardService = mock(DashboardService.class);
+    private final DataVersionService dataVersionService = mock(DataVersionService.class);
+    private final DashboardController controller = new DashboardController(dashboardService, dataVersionService);
+
+    @Test
+    void matchingETagAnswers304WithoutBuildingTheDashboard() {
+        when(dataVersionService.current()).thenReturn(new DataVersion(7L, 12));
+
+        ResponseEntity<Map<String, Object>> response = controller.getDashboardData("\"p7-v11\", W/\"p7-v12\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"p7-v12\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verifyNoInteractions(dashboardService);
+    }
+
+    @Test
+    void changedVersionAnswers200WithNewETag() {
+        DataVersion version = new DataVersion(7L, 13);
+        when(dataVersionService.current()).thenReturn(version);
+        when(dashboardService.getDashboardData(version)).thenReturn(Map.of("totalBalance", 1));
+
+        ResponseEntity<Map<String, Object>> response = controller.getDashboardData("\"p7-v12\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"p7-v13\"", response.getHeaders().getETag());
+        assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+        assertEquals(Map.of("totalBalance", 1), response.getBody());
+    }
+
+    @Test
+    void writeCommittingBetweenETagAndBodyNeverLeavesAStaleBodyBehindANewETag() {
+        // The "database": data and version change together, like a write's commit
+        AtomicReference<BigDecimal> income = new AtomicReference<>(new BigDecimal("100.00"));
+        AtomicLong committedVersion = new AtomicLong(1);
+        Runnable commit = () -> {
+            income.set(income.get().add(new BigDecimal("50.00")));
+            committedVersion.incrementAndGet();
+        };
+        DashboardQueryRepository repository = mock(DashboardQueryRepository.class);
+        when(repository.findSummary(7L)).thenAnswer(inv -> new DashboardSummary(income.get(), BigDecimal.ZERO, List.of()));
+        DashboardController realController = new DashboardController(new DashboardService(repository,
+                new ProfileDataCache(new CacheConfig().cacheManager(100, 10, 100, 10)),
+                mock(PlatformTransactionManager.class), 3000), dataVersionService);
+
+        // Reads the committed version; when armed, a write commits right after that read
+        AtomicBoolean commitAfterRead = new AtomicBoolean();
+        when(dataVersionService.current()).thenAnswer(inv -> {
+            DataVersion read = new DataVersion(7L, committedVersion.get());
+            if (commitAfterRead.getAndSet(false)) {
+                commit.run();
+            }
+            return read;
+        });
+
+        // v1 is cached
+        assertEquals(new BigDecimal("100.00"), realController.getDashboardData(null).getBody().get("totalIncome"));
+
+        // The write commits after this request read its ETag, before the body is built
+        commitAfterRead.set(true);
+        ResponseEntity<Map<String, Object>> raced = realController.getDashboardData(null);
+        assertEquals("\"p7-v1\"", raced.getHeaders().getETag());
+
+        // Nothing has been evicted, yet the first request to see v2 gets v2's data
+        ResponseEntity<Map<String, Object>> after = realController.getDashboardData(raced.getHeaders().getETag());
+        assertEquals(HttpStatus.OK, after.getStatusCode());
+        assertEquals("\"p7-v2\"", after.getHeaders().getETag());
+        assertEquals(new BigDecimal("150.00"), after.getBody().get("totalIncome"));
+
+        // The next commit: the client holding v2 gets a 200 with v3 data, and 304s from then on
+        commit.run();
+        ResponseEntity<Map<String, Object>> next = realController.getDashboardData(after.getHeaders().getETag());
+        assertEquals(HttpStatus.OK, next.getStatusCode());
+        assertEquals(new BigDecimal("200.00"), next.getBody().get("totalIncome"));
+        assertEquals(HttpStatus.NOT_MODIFIED, realController.getDashboardData(next.getHeaders().getETag()).getStatusCode());
+    }
+
+    @Test
+    void otherProfilesETagNeverMatches() {
+        assertFalse(ConditionalGet.matches("\"p8-v12\"", "\"p7-v12\""));
+        assertFalse(ConditionalGet.matches(null, "\"p7-v12\""));
+        assertTrue(ConditionalGet.matches("*", "\"p7-v12\""));
+    }
+}
@@ -1,82 +1,123 @@
 package in.bushansirgur.moneymanager.controller;
 
-import in.bushansirgur.moneymanager.dto.ExpenseDTO;
-import in.bushansirgur.moneymanager.dto.IncomeDTO;
-import in.bushansirgur.moneymanager.service.ExcelService;
-import in.bushansirgur.moneymanager.service.ExpenseService;
-import in.bushansirgur.moneymanager.service.IncomeService;
+import in.bushansirgur.moneymanager.exception.ValidationException;
+import in.bushansirgur.moneymanager.service.ExcelExportService;
+import in.bushansirgur.moneymanager.service.ExportCacheService;
+import in.bushansirgur.moneymanager.service.ExportJobService;
+import in.bushansirgur.moneymanager.util.ExportFormat;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.springframework.data.domain.Sort;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
-import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class ExcelControllerTest {
 
+    private final ExcelExportService excelExportService = mock(ExcelExportService.class);
+    private final ExportCacheService exportCacheService = mock(ExportCacheService.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+    private final ExcelController controller =
+            new ExcelController(excelExportService, mock(ExportJobService.class), exportCacheService);
+
     @Test
-    void downloadFullReport_fetchesIncomeAndExpensesBeforeOpeningResponseStream() throws Exception {
-        ExcelService excelService = mock(ExcelService.class);
-        IncomeService incomeService = mock(IncomeService.class);
-        ExpenseService expenseService = mock(ExpenseService.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
+    void downloadFullReport_setsHeadersAndOpensResponseStreamOnlyWhenTheExportAsksForIt() throws Exception {
         ServletOutputStream outputStream = new TestServletOutputStream();
-        ExcelController controller = new ExcelController(excelService, incomeService, expenseService);
-
-        List<IncomeDTO> incomes = List.of(
-                IncomeDTO.builder().name("Salary").amount(new BigDecimal("1000.00")).date(LocalDateTime.now()).build()
-        );
-        List<ExpenseDTO> expenses = List.of(
-                ExpenseDTO.builder().name("Food").amount(new BigDecimal("100.00")).date(LocalDateTime.now()).build()
-        );
-        Sort sort = Sort.by(Sort.Direction.DESC, "date");
-
-        when(incomeService.filterIncomes(null, null, "", sort)).thenReturn(incomes);
-        when(expenseService.filterExpenses(null, null, "", sort)).thenReturn(expenses);
         when(response.getOutputStream()).thenReturn(outputStream);
+        ArgumentCaptor<ExcelExportService.Body> body = ArgumentCaptor.forClass(ExcelExportService.Body.class);
+
+        controller.downloadFullReport(response, null, null, "", null, false, null);
 
-        controller.downloadFullReport(response, null, null, "");
+        verify(excelExportService).exportFullReport(eq(LocalDateTime.of(2000, 1, 1, 0, 0)), any(), eq(""),
+                eq(ExportFormat.XLSX), body.capture());
+        // The export hasn't produced a row yet, so the response is still free for an error
+        verifyNoInteractions(response);
 
-        InOrder inOrder = inOrder(incomeService, expenseService, response, excelService);
-        inOrder.verify(incomeService).filterIncomes(null, null, "", sort);
-        inOrder.verify(expenseService).filterExpenses(null, null, "", sort);
+        assertSame(outputStream, body.getValue().open());
+        InOrder inOrder = inOrder(response);
         inOrder.verify(response).setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
         inOrder.verify(response).setHeader(eq("Content-Disposition"), eq("attachment; filename=full_report_all_to_today.xlsx"));
         inOrder.verify(response).getOutputStream();
-        inOrder.verify(excelService).writeFullReportToExcel(outputStream, incomes, expenses);
     }
 
     @Test
-    void downloadFullReport_doesNotOpenResponseStreamWhenExpenseFetchFails() throws Exception {
-        ExcelService excelService = mock(ExcelService.class);
-        IncomeService incomeService = mock(IncomeService.class);
-        ExpenseService expenseService = mock(ExpenseService.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        ExcelController controller = new ExcelController(excelService, incomeService, expenseService);
+    void downloadFilteredReport_validatesSortFieldBeforeExporting(@TempDir Path directory) throws Exception {
+        assertThrows(ValidationException.class, () -> controller.downloadFilteredReport(
+                response, "income", null, null, "", "category", "desc", null, null));
+        verifyNoInteractions(exportCacheService, response);
+
+        when(exportCacheService.transactions(eq("income"), any(), any(), eq("rent"), eq("amount"), eq(Sort.Direction.ASC),
+                eq(ExportFormat.CSV_GZ))).thenReturn(cached(directory, "workbook", ExportFormat.CSV_GZ));
+        when(response.getOutputStream()).thenReturn(new TestServletOutputStream());
+        controller.downloadFilteredReport(response, "INCOME", null, null, "rent", "amount", "asc", "csv.gz", null);
+        verify(response).setContentLengthLong(8);
+        verify(response).setContentType("application/gzip");
+        verify(response).setHeader("Content-Disposition", "attachment; filename=income_filtered_all_to_today.csv.gz");
+    }
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "date");
-        when(incomeService.filterIncomes(null, null, "", sort)).thenReturn(List.of());
-        when(expenseService.filterExpenses(null, null, "", sort)).thenThrow(new RuntimeException("DB failure"));
+    @Test
+    void cachedDownloadIsSentFromTheOpenChannelEvenOnceTheFileIsGone(@TempDir Path directory) throws Exception {
+        ExportCacheService.CachedExport export = cached(directory, "workbook", ExportFormat.CSV);
+        when(exportCacheService.currentMonth("expense", ExportFormat.CSV)).thenReturn(export);
+        TestServletOutputStream outputStream = new TestServletOutputStream();
+        when(response.getOutputStream()).thenReturn(outputStream);
+        // Evicted between the cache lookup and the copy
+        Files.delete(directory.resolve("cached.csv"));
+
+        controller.downloadExpenseExcel(response, null, "application/json;q=0.5, text/csv");
 
-        assertThrows(RuntimeException.class, () -> controller.downloadFullReport(response, null, null, ""));
+        verify(response).setHeader("Content-Disposition", "attachment; filename=expense.csv");
+        verify(response).setContentLengthLong(8);
+        assertEquals("workbook", outputStream.delegate.toString());
+    }
+
+    @Test
+    void formatParameterWinsOverAcceptAndUnknownFormatsAreRejected() {
+        assertEquals(ExportFormat.XLSX, ExportFormat.resolve("XLSX", "text/csv"));
+        assertEquals(ExportFormat.CSV_GZ, ExportFormat.resolve(null, "text/csv;q=0.4, application/gzip"));
+        assertEquals(ExportFormat.XLSX, ExportFormat.resolve(null, "text/csv;q=0, text/html"));
+        assertEquals(ExportFormat.XLSX, ExportFormat.resolve(null, "not a media type"));
+        assertThrows(ValidationException.class, () -> controller.downloadFullReport(response, null, null, "", "pdf", false, null));
+        verifyNoInteractions(excelExportService);
+    }
+
+    @Test
+    void analysisWorkbookIsXlsxOnly() throws Exception {
+        assertThrows(ValidationException.class,
+                () -> controller.downloadFullReport(response, null, null, "", "csv", true, null));
+        verifyNoInteractions(excelExportService);
+
+        // A CSV preference in Accept alone doesn't rule it out; the workbook is still what was asked for
+        controller.downloadFullReport(response, null, null, "", null, true, "text/csv");
+        ArgumentCaptor<ExcelExportService.Body> body = ArgumentCaptor.forClass(ExcelExportService.Body.class);
+        verify(excelExportService).exportFullReportAnalysis(any(), any(), eq(""), body.capture());
+        when(response.getOutputStream()).thenReturn(new TestServletOutputStream());
+        body.getValue().open();
+        verify(response).setHeader("Content-Disposition", "attachment; filename=full_analysis_all_to_today.xlsx");
+    }
 
-        verify(response, never()).getOutputStream();
-        verifyNoInteractions(excelService);
+    private static ExportCacheService.CachedExport cached(Path directory, String content, ExportFormat format) throws IOException {
+        Path file = Files.writeString(directory.resolve("cached." + format.extension()), content);
+        return ExportCacheService.CachedExport.open(file, format);
     }
 
     private static final class TestServletOutputStream extends ServletOutputStream {
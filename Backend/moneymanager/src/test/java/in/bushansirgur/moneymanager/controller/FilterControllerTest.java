@@ -0,0 +1,161 @@
+package in.bushansirgur.moneymanager.controller;
+
+import in.bushansirgur.moneymanager.dto.FilterDTO;
+import in.bushansirgur.moneymanager.dto.FilterPageDTO;
+import in.bushansirgur.moneymanager.dto.FilterPageRequest;
+import in.bushansirgur.moneymanager.dto.IncomeDTO;
+import in.bushansirgur.moneymanager.dto.TransactionViewRow;
+import in.bushansirgur.moneymanager.exception.ValidationException;
+import in.bushansirgur.moneymanager.service.ExpenseService;
+import in.bushansirgur.moneymanager.service.FilterStreamService;
+import in.bushansirgur.moneymanager.service.IncomeService;
+import in.bushansirgur.moneymanager.service.TransactionViewService;
+import in.bushansirgur.moneymanager.util.KeysetCursor;
+import in.bushansirgur.moneymanager.util.KeysetCursorCodec;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FilterControllerTest {
+
+    private static final String SECRET = "c2VjcmV0LWZvci10aGUta2V5c2V0LWN1cnNvci10ZXN0cy0wMTIzNDU2Nzg5";
+
+    private final IncomeService incomeService = mock(IncomeService.class);
+    private final ExpenseService expenseService = mock(ExpenseService.class);
+    private final TransactionViewService transactionViewService = mock(TransactionViewService.class);
+    private final KeysetCursorCodec cursorCodec = new KeysetCursorCodec(SECRET);
+    private final FilterController controller = new FilterController(expenseService, incomeService,
+            mock(FilterStreamService.class), transactionViewService, cursorCodec, 50, 500);
+
+    @Test
+    void withoutLimitOrCursorReturnsThePlainList() {
+        List<IncomeDTO> incomes = List.of(IncomeDTO.builder().id(1L).build());
+        when(incomeService.filterIncomes(any(), any(), eq(""), eq(Sort.by(Sort.Direction.ASC, "date")))).thenReturn(incomes);
+
+        assertSame(incomes, controller.filterTransactions(filter(null, null)).getBody());
+        verify(incomeService, never()).filterIncomesPage(any());
+    }
+
+    @Test
+    void cursorFromOnePageSeeksPastItsLastRow() {
+        FilterDTO first = filter(20, null);
+        first.setSortField("amount");
+        FilterPageDTO<IncomeDTO> page = new FilterPageDTO<>(List.of(), "token", true);
+        when(incomeService.filterIncomesPage(any())).thenReturn(page);
+        ArgumentCaptor<FilterPageRequest> captor = ArgumentCaptor.forClass(FilterPageRequest.class);
+
+        controller.filterTransactions(first);
+        verify(incomeService).filterIncomesPage(captor.capture());
+        FilterPageRequest firstRequest = captor.getValue();
+        assertNull(firstRequest.after());
+        assertEquals(20, firstRequest.limit());
+
+        // What the service would hand back as nextCursor for a last row of amount 12.50, id 99
+        String next = cursorCodec.encode(firstRequest.cursorAfter(new BigDecimal("12.50"), 99L), firstRequest.filterKey());
+        FilterDTO second = filter(20, next);
+        second.setSortField("amount");
+        controller.filterTransactions(second);
+
+        verify(incomeService, times(2)).filterIncomesPage(captor.capture());
+        KeysetCursor after = captor.getValue().after();
+        assertEquals(new BigDecimal("12.50"), after.value());
+        assertEquals(99L, after.id());
+    }
+
+    @Test
+    void cursorFromADifferentFilterIsRejected() {
+        FilterDTO first = filter(20, null);
+        when(incomeService.filterIncomesPage(any())).thenReturn(new FilterPageDTO<>(List.of(), null, false));
+        controller.filterTransactions(first);
+        ArgumentCaptor<FilterPageRequest> captor = ArgumentCaptor.forClass(FilterPageRequest.class);
+        verify(incomeService).filterIncomesPage(captor.capture());
+        String next = cursorCodec.encode(captor.getValue().cursorAfter(LocalDateTime.now(), 5L), captor.getValue().filterKey());
+
+        FilterDTO changed = filter(20, next);
+        changed.setKeyword("rent");
+
+        assertThrows(ValidationException.class, () -> controller.filterTransactions(changed));
+        assertThrows(ValidationException.class, () -> controller.filterTransactions(filter(20, "not-a-cursor")));
+        assertThrows(ValidationException.class, () -> controller.filterTransactions(filter(501, null)));
+    }
+
+    @Test
+    void cursorIsAcceptedByAnotherInstanceButNotOnceEdited() {
+        FilterDTO first = filter(20, null);
+        first.setSortOrder("desc");
+        when(incomeService.filterIncomesPage(any())).thenReturn(new FilterPageDTO<>(List.of(), null, false));
+        controller.filterTransactions(first);
+        ArgumentCaptor<FilterPageRequest> captor = ArgumentCaptor.forClass(FilterPageRequest.class);
+        verify(incomeService).filterIncomesPage(captor.capture());
+        String next = cursorCodec.encode(captor.getValue().cursorAfter(LocalDateTime.of(2026, 3, 1, 9, 30), 5L),
+                captor.getValue().filterKey());
+
+        // Same secret, separate codec: another instance, or this one after a restart
+        FilterController other = new FilterController(expenseService, incomeService, mock(FilterStreamService.class),
+                transactionViewService, new KeysetCursorCodec(SECRET), 50, 500);
+        FilterDTO second = filter(20, next);
+        second.setSortOrder("desc");
+        other.filterTransactions(second);
+        verify(incomeService, times(2)).filterIncomesPage(captor.capture());
+        assertEquals(5L, captor.getValue().after().id());
+
+        // Point the cursor at a different id, keeping the signature
+        String payload = new String(Base64.getUrlDecoder().decode(next.substring(0, next.indexOf('.'))), StandardCharsets.UTF_8);
+        String edited = Base64.getUrlEncoder().withoutPadding().encodeToString(payload.replace("|5|", "|6|").getBytes(StandardCharsets.UTF_8))
+                + next.substring(next.indexOf('.'));
+        FilterDTO tampered = filter(20, edited);
+        tampered.setSortOrder("desc");
+        assertThrows(ValidationException.class, () -> other.filterTransactions(tampered));
+
+        FilterDTO otherSecret = filter(20, next);
+        otherSecret.setSortOrder("desc");
+        FilterController rotated = new FilterController(expenseService, incomeService, mock(FilterStreamService.class),
+                transactionViewService, new KeysetCursorCodec("another-secret"), 50, 500);
+        assertThrows(ValidationException.class, () -> rotated.filterTransactions(otherSecret));
+    }
+
+    @Test
+    void typeAllGoesToTheMergedViewInBothModes() {
+        List<TransactionViewRow> rows = List.of();
+        when(transactionViewService.filterAll(any(), any(), eq(""), eq("amount"), eq(Sort.Direction.DESC))).thenReturn(rows);
+        FilterDTO list = filter(null, null);
+        list.setType("ALL");
+        list.setSortField("amount");
+        list.setSortOrder("desc");
+
+        assertSame(rows, controller.filterTransactions(list).getBody());
+
+        FilterDTO paged = filter(10, null);
+        paged.setType("all");
+        controller.filterTransactions(paged);
+        verify(transactionViewService).filterAllPage(any());
+        verify(incomeService, never()).filterIncomesPage(any());
+        verify(expenseService, never()).filterExpensesPage(any());
+    }
+
+    private static FilterDTO filter(Integer limit, String cursor) {
+        FilterDTO filter = new FilterDTO();
+        filter.setType("income");
+        filter.setLimit(limit);
+        filter.setCursor(cursor);
+        return filter;
+    }
+}
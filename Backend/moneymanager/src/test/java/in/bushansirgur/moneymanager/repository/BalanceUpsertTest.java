@@ -0,0 +1,77 @@
+package in.bushansirgur.moneymanager.repository;
+
+import in.bushansirgur.moneymanager.dto.DashboardSummary;
+import in.bushansirgur.moneymanager.service.BalanceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Balance deltas against a real database, for a profile registered after the balance table
+ * was backfilled: its first write creates the row and later ones add to it, with no dashboard
+ * load in between. Each test runs in a transaction that is rolled back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BalanceService.class, DashboardQueryRepository.class})
+@EnabledIf("in.bushansirgur.moneymanager.repository.PostgresTestDatabase#available")
+class BalanceUpsertTest {
+
+    private static final String BALANCE =
+            "SELECT total_income, income_count, total_expense, expense_count FROM tbl_profile_balances WHERE profile_id = ?";
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    BalanceService balanceService;
+
+    @Autowired
+    DashboardQueryRepository dashboardQueryRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Long profileId;
+
+    @BeforeEach
+    void newProfile() {
+        profileId = jdbcTemplate.queryForObject("INSERT INTO profile (full_name, email, is_active, token_version) "
+                + "VALUES ('Balance', 'balance-' || gen_random_uuid() || '@example.com', TRUE, 0) RETURNING id", Long.class);
+    }
+
+    @Test
+    void firstDeltaCreatesTheRowAndLaterOnesAddToIt() {
+        DashboardSummary before = dashboardQueryRepository.findSummary(profileId);
+
+        balanceService.recordIncomeChange(profileId, new BigDecimal("100.00"), 1);
+        balanceService.recordExpenseChange(profileId, new BigDecimal("30.50"), 1);
+        balanceService.recordIncomeChange(profileId, new BigDecimal("-40.00"), 0);
+        balanceService.recordIncomeChange(profileId, new BigDecimal("25.00"), 1);
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(before.totalIncome()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(before.totalExpense()));
+        Map<String, Object> row = jdbcTemplate.queryForMap(BALANCE, profileId);
+        assertEquals(new BigDecimal("85.00"), row.get("total_income"));
+        assertEquals(2L, row.get("income_count"));
+        assertEquals(new BigDecimal("30.50"), row.get("total_expense"));
+        assertEquals(1L, row.get("expense_count"));
+        DashboardSummary after = dashboardQueryRepository.findSummary(profileId);
+        assertEquals(new BigDecimal("85.00"), after.totalIncome());
+        assertEquals(new BigDecimal("30.50"), after.totalExpense());
+    }
+}
@@ -0,0 +1,75 @@
+package in.bushansirgur.moneymanager.repository;
+
+import in.bushansirgur.moneymanager.config.CacheConfig;
+import in.bushansirgur.moneymanager.exception.ServiceUnavailableException;
+import in.bushansirgur.moneymanager.service.DashboardService;
+import in.bushansirgur.moneymanager.service.DataVersionService.DataVersion;
+import in.bushansirgur.moneymanager.service.ProfileDataCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The dashboard deadline against a real database: with the balance table locked by another
+ * session, the summary statement must be cancelled by PostgreSQL at the transaction timeout,
+ * not merely abandoned while it keeps waiting on a pooled connection.
+ */
+@DataJpaTest(properties = "dashboard.deadline-ms=1000")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DashboardQueryRepository.class, DashboardService.class, ProfileDataCache.class, CacheConfig.class})
+@EnabledIf("in.bushansirgur.moneymanager.repository.PostgresTestDatabase#available")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DashboardQueryTimeoutTest {
+
+    private static final String WAITING_ON_BALANCES =
+            "SELECT count(*) FROM pg_locks WHERE NOT granted AND relation = 'tbl_profile_balances'::regclass";
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    DashboardService dashboardService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void blockedSummaryIsCancelledAtTheDeadline() throws Exception {
+        try (Connection locker = DriverManager.getConnection(
+                PostgresTestDatabase.url(), PostgresTestDatabase.user(), PostgresTestDatabase.password())) {
+            locker.setAutoCommit(false);
+            try (Statement statement = locker.createStatement()) {
+                statement.execute("LOCK TABLE tbl_profile_balances IN ACCESS EXCLUSIVE MODE");
+            }
+
+            long startedAt = System.nanoTime();
+            assertThrows(ServiceUnavailableException.class,
+                    () -> dashboardService.getDashboardData(new DataVersion(-1L, 1)));
+            long tookMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+            assertTrue(tookMillis < 5000, "took " + tookMillis + " ms");
+            // Still holding the lock: a statement left running would still be queued behind it
+            assertEquals(0, jdbcTemplate.queryForObject(WAITING_ON_BALANCES, Integer.class));
+            assertEquals(1, dashboardService.stats().deadlineExceeded());
+            locker.rollback();
+        }
+    }
+}
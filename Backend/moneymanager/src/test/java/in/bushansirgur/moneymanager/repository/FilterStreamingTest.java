@@ -0,0 +1,121 @@
+package in.bushansirgur.moneymanager.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import in.bushansirgur.moneymanager.service.FilterStreamService;
+import in.bushansirgur.moneymanager.service.ProfileService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * POST /filter/stream against a seeded table: FilterStreamService through the real
+ * repositories and transaction. Streaming is checked where it happens, in the database:
+ * when the first batch reaches the client, the read-only transaction is open and the
+ * statement is still a suspended server-side cursor, i.e. the driver honoured the fetch
+ * size instead of buffering the whole result first.
+ */
+@DataJpaTest(properties = "filter.stream.fetch-size=" + FilterStreamingTest.FETCH_SIZE)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureJson
+@Import({FilterStreamService.class, TransactionStreamRepository.class, TransactionViewRepository.class})
+@EnabledIf("in.bushansirgur.moneymanager.repository.PostgresTestDatabase#available")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FilterStreamingTest {
+
+    static final int FETCH_SIZE = 100;
+    private static final int ROWS = 1_000;
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    FilterStreamService filterStreamService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockitoBean
+    ProfileService profileService;
+
+    private Long profileId;
+
+    // Committed, since the service has to open its own read-only transaction to see the rows
+    @BeforeEach
+    void seed() {
+        profileId = jdbcTemplate.queryForObject("INSERT INTO profile (full_name, email, is_active, token_version) "
+                + "VALUES ('Stream', 'stream-' || gen_random_uuid() || '@example.com', TRUE, 0) RETURNING id", Long.class);
+        Long categoryId = jdbcTemplate.queryForObject("INSERT INTO tbl_categories (name, type, icon, profile_id) "
+                + "VALUES ('Salary', 'income', '', ?) RETURNING id", Long.class, profileId);
+        for (String table : List.of("tbl_incomes", "tbl_expenses")) {
+            jdbcTemplate.update("INSERT INTO " + table + " (name, icon, date, amount, category_id, profile_id) "
+                    + "SELECT 'row-' || n, '', ? + n * INTERVAL '1 minute', n / 100.0, ?, ? FROM generate_series(1, ?) n",
+                    START, categoryId, profileId, ROWS);
+        }
+        when(profileService.getCurrentProfileId()).thenReturn(profileId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (String table : List.of("tbl_incomes", "tbl_expenses", "tbl_categories", "tbl_profile_balances", "profile")) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE " + (table.equals("profile") ? "id" : "profile_id") + " = ?", profileId);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"income", "all"})
+    void firstBatchReachesTheClientWhileTheCursorIsStillOpen(String type) throws Exception {
+        List<String> seenAtFlush = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() throws IOException {
+                super.flush();
+                if (seenAtFlush.isEmpty()) {
+                    // Same thread, so the same connection and transaction as the cursor
+                    seenAtFlush.add(jdbcTemplate.queryForObject("SELECT current_setting('transaction_read_only')", String.class));
+                    seenAtFlush.add(String.valueOf(jdbcTemplate.queryForObject(
+                            "SELECT count(*) FROM pg_cursors WHERE name <> ''", Integer.class)));
+                    seenAtFlush.add(String.valueOf(size()));
+                }
+            }
+        };
+
+        long written = filterStreamService.writeFiltered(type, START, START.plusYears(1), "", "date", Sort.Direction.ASC, out);
+
+        int expected = type.equals("all") ? ROWS * 2 : ROWS;
+        assertEquals(expected, written);
+        assertEquals(expected, objectMapper.readTree(out.toByteArray()).size());
+        assertEquals("on", seenAtFlush.get(0), "read-only transaction");
+        assertEquals("1", seenAtFlush.get(1), "open server-side cursor when the first batch was flushed");
+        assertTrue(Integer.parseInt(seenAtFlush.get(2)) < out.size(), "first batch flushed before the last row was read");
+    }
+}
@@ -0,0 +1,160 @@
+package in.bushansirgur.moneymanager.repository;
+
+import in.bushansirgur.moneymanager.dto.IncomeDTO;
+import in.bushansirgur.moneymanager.dto.KeywordMatch;
+import in.bushansirgur.moneymanager.dto.TransactionViewRow;
+import in.bushansirgur.moneymanager.entity.IncomeEntity;
+import in.bushansirgur.moneymanager.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pages through rows that tie on every sort column with the real seek queries: the JPQL of
+ * TransactionPageRepository and the UNION ALL of TransactionViewRepository. Each sort field
+ * and direction must visit every row exactly once, in (sort value, id) order, with a page
+ * boundary falling inside every run of equal values.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TransactionPageRepository.class, TransactionViewRepository.class})
+@EnabledIf("in.bushansirgur.moneymanager.repository.PostgresTestDatabase#available")
+class KeysetPagingTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 12, 31, 23, 59);
+    private static final int ROWS = 23;
+    private static final int LIMIT = 4;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    TransactionPageRepository pageRepository;
+
+    @Autowired
+    TransactionViewRepository viewRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Long profileId;
+
+    // Three dates, three amounts and three names, so every value repeats 7-8 times
+    @BeforeEach
+    void seed() {
+        profileId = jdbcTemplate.queryForObject("INSERT INTO profile (full_name, email, is_active, token_version) "
+                + "VALUES ('Keyset', 'keyset-' || gen_random_uuid() || '@example.com', TRUE, 0) RETURNING id", Long.class);
+        Long categoryId = jdbcTemplate.queryForObject("INSERT INTO tbl_categories (name, type, icon, profile_id) "
+                + "VALUES ('Salary', 'income', '', ?) RETURNING id", Long.class, profileId);
+        for (String table : List.of("tbl_incomes", "tbl_expenses")) {
+            for (int i = 0; i < ROWS; i++) {
+                jdbcTemplate.update("INSERT INTO " + table + " (name, icon, date, amount, category_id, profile_id) VALUES (?, '', ?, ?, ?, ?)",
+                        List.of("alpha", "beta", "gamma").get(i % 3),
+                        Timestamp.valueOf(START.plusDays(10 + i % 3)),
+                        new BigDecimal(List.of("5.00", "12.50", "99.99").get(i * 7 % 3)),
+                        categoryId, profileId);
+            }
+        }
+    }
+
+    static Stream<Arguments> sorts() {
+        return Stream.of("date", "amount", "name").flatMap(field ->
+                Stream.of(Arguments.of(field, Sort.Direction.ASC), Arguments.of(field, Sort.Direction.DESC)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("sorts")
+    void singleTypePagesVisitEveryRowOnceInOrder(String sortField, Sort.Direction direction) {
+        List<IncomeDTO> all = pageRepository.findPage(IncomeEntity.class, IncomeDTO.class, profileId, START, END,
+                KeywordMatch.none(), sortField, direction, null, 1000);
+        assertEquals(ROWS, all.size());
+
+        List<Long> paged = new ArrayList<>();
+        KeysetCursor after = null;
+        while (true) {
+            List<IncomeDTO> page = pageRepository.findPage(IncomeEntity.class, IncomeDTO.class, profileId, START, END,
+                    KeywordMatch.none(), sortField, direction, after, LIMIT);
+            List<IncomeDTO> shown = page.subList(0, Math.min(LIMIT, page.size()));
+            shown.forEach(row -> paged.add(row.getId()));
+            if (page.size() <= LIMIT) {
+                break;
+            }
+            IncomeDTO last = shown.get(shown.size() - 1);
+            after = new KeysetCursor(sortField, incomeValue(last, sortField), last.getId());
+        }
+
+        assertEquals(expectedOrder(all, row -> incomeValue(row, sortField), IncomeDTO::getId, direction), paged);
+    }
+
+    @ParameterizedTest
+    @MethodSource("sorts")
+    void mergedViewPagesVisitEveryRowOnceInOrder(String sortField, Sort.Direction direction) {
+        List<TransactionViewRow> all = viewRepository.findRows(profileId, START, END, KeywordMatch.none(),
+                sortField, direction, null, null);
+        assertEquals(ROWS * 2, all.size());
+
+        List<Long> paged = new ArrayList<>();
+        KeysetCursor after = null;
+        while (true) {
+            List<TransactionViewRow> page = viewRepository.findRows(profileId, START, END, KeywordMatch.none(),
+                    sortField, direction, after, LIMIT + 1);
+            List<TransactionViewRow> shown = page.subList(0, Math.min(LIMIT, page.size()));
+            shown.forEach(row -> paged.add(row.rowKey()));
+            if (page.size() <= LIMIT) {
+                break;
+            }
+            TransactionViewRow last = shown.get(shown.size() - 1);
+            after = new KeysetCursor(sortField, viewValue(last, sortField), last.rowKey());
+        }
+
+        assertEquals(expectedOrder(all, row -> viewValue(row, sortField), TransactionViewRow::rowKey, direction), paged);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> List<Long> expectedOrder(List<T> rows, Function<T, Object> value, Function<T, Long> id,
+                                               Sort.Direction direction) {
+        Comparator<T> order = Comparator.comparing(row -> (Comparable) value.apply(row));
+        order = order.thenComparing(id);
+        return rows.stream().sorted(direction.isAscending() ? order : order.reversed()).map(id).toList();
+    }
+
+    private static Object incomeValue(IncomeDTO row, String sortField) {
+        return switch (sortField) {
+            case "date" -> row.getDate();
+            case "amount" -> row.getAmount();
+            default -> row.getName();
+        };
+    }
+
+    private static Object viewValue(TransactionViewRow row, String sortField) {
+        return switch (sortField) {
+            case "date" -> row.date();
+            case "amount" -> row.amount();
+            default -> row.name();
+        };
+    }
+}
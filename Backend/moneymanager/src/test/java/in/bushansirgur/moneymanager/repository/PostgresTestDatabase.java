@@ -0,0 +1,64 @@
+package in.bushansirgur.moneymanager.repository;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * The PostgreSQL the database tests run against: a Testcontainers postgres:16-alpine when
+ * Docker is available, otherwise an existing scratch database given as -Dtest.jdbc.url (plus
+ * test.jdbc.user / test.jdbc.password). Started once per test JVM and shared by every class;
+ * the classes using it are skipped when neither is there:
+ *
+ *   @EnabledIf("in.bushansirgur.moneymanager.repository.PostgresTestDatabase#available")
+ *
+ * Spring tests take the connection through register() in a @DynamicPropertySource, and the
+ * application's Flyway migrations build the schema.
+ */
+public final class PostgresTestDatabase {
+
+    private static boolean started;
+    private static String url;
+    private static String user;
+    private static String password;
+
+    private PostgresTestDatabase() {
+    }
+
+    public static synchronized boolean available() {
+        if (!started) {
+            started = true;
+            url = System.getProperty("test.jdbc.url");
+            user = System.getProperty("test.jdbc.user");
+            password = System.getProperty("test.jdbc.password");
+            if (url == null && DockerClientFactory.instance().isDockerAvailable()) {
+                // Stopped by Testcontainers' reaper when the JVM exits
+                PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:16-alpine");
+                container.start();
+                url = container.getJdbcUrl();
+                user = container.getUsername();
+                password = container.getPassword();
+            }
+        }
+        return url != null;
+    }
+
+    public static String url() {
+        available();
+        return url;
+    }
+
+    public static String user() {
+        return user;
+    }
+
+    public static String password() {
+        return password;
+    }
+
+    public static void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PostgresTestDatabase::url);
+        registry.add("spring.datasource.username", PostgresTestDatabase::user);
+        registry.add("spring.datasource.password", PostgresTestDatabase::password);
+    }
+}
@@ -0,0 +1,214 @@
+package in.bushansirgur.moneymanager.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Calls every query method of IncomeRepository, ExpenseRepository and CategoryRepository
+ * against the Flyway-migrated schema, captures the SQL Hibernate actually sends (through a
+ * StatementInspector), and fails if the plan of any of it reads one of the tables with a
+ * sequential scan.
+ *
+ * Each statement is prepared and EXPLAINed as a generic plan, so the result doesn't depend on
+ * the parameter values, and with sequential scans switched off, so the planner only picks one
+ * when no index can serve the query at all — nor on how much test data there is.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "in.bushansirgur.moneymanager.repository.RepositoryIndexUsageTest$CapturedStatements")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("in.bushansirgur.moneymanager.repository.PostgresTestDatabase#available")
+class RepositoryIndexUsageTest {
+
+    private static final Set<String> TABLES = Set.of("tbl_incomes", "tbl_expenses", "tbl_categories");
+
+    private static final List<Class<?>> REPOSITORIES = List.of(IncomeRepository.class, ExpenseRepository.class, CategoryRepository.class);
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 1, 31, 23, 59);
+
+    /** Every SQL statement Hibernate prepares, in order. */
+    public static final class CapturedStatements implements StatementInspector {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    IncomeRepository incomeRepository;
+
+    @Autowired
+    ExpenseRepository expenseRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Long profileId;
+    private Long categoryId;
+
+    // A few profiles with enough rows that statistics look like a real install
+    @BeforeEach
+    void seed() {
+        String run = "explain-" + System.nanoTime() + "-";
+        jdbcTemplate.update("""
+                INSERT INTO profile (full_name, email, is_active, token_version)
+                SELECT 'Explain ' || g, ? || g || '@example.com', TRUE, 0 FROM generate_series(1, 20) g
+                """, run);
+        jdbcTemplate.update("""
+                INSERT INTO tbl_categories (name, type, icon, profile_id)
+                SELECT (ARRAY['Food', 'Rent', 'Salary', 'Fuel'])[1 + g % 4], (ARRAY['expense', 'income'])[1 + g % 2], '', p.id
+                FROM profile p, generate_series(1, 8) g WHERE p.email LIKE ? || '%'
+                """, run);
+        for (String table : List.of("tbl_incomes", "tbl_expenses")) {
+            jdbcTemplate.update("""
+                    INSERT INTO %s (name, icon, date, amount, category_id, profile_id)
+                    SELECT (ARRAY['Coffee', 'Groceries', 'Rent', 'Invoice'])[1 + g %% 4] || ' ' || g, '',
+                           TIMESTAMP '2024-01-01' + (g || ' hours')::interval, g %% 500,
+                           (SELECT MIN(c.id) FROM tbl_categories c WHERE c.profile_id = p.id), p.id
+                    FROM profile p, generate_series(1, 500) g WHERE p.email LIKE ? || '%%'
+                    """.formatted(table), run);
+        }
+        for (String table : TABLES) {
+            jdbcTemplate.execute("ANALYZE " + table);
+        }
+        profileId = jdbcTemplate.queryForObject("SELECT id FROM profile WHERE email = ?", Long.class, run + "1@example.com");
+        categoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM tbl_categories WHERE profile_id = ?", Long.class, profileId);
+    }
+
+    @Test
+    void everyRepositoryQueryUsesAnIndex() throws Exception {
+        Map<String, Runnable> calls = calls();
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                declared.add(key(repository, method.getName(), method.getParameterCount()));
+            }
+        }
+        // A new query method must come with its index (V4__hot_path_indexes.sql) and a call here
+        assertEquals(declared, new TreeSet<>(calls.keySet()));
+
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Runnable> call : calls.entrySet()) {
+            CapturedStatements.SQL.clear();
+            call.getValue().run();
+            List<String> statements = List.copyOf(CapturedStatements.SQL);
+            assertFalse(statements.isEmpty(), call.getKey() + " sent no SQL");
+            for (String sql : statements) {
+                JsonNode plan = explain(sql);
+                List<String> scans = new ArrayList<>();
+                collectSeqScans(plan, scans);
+                if (!scans.isEmpty()) {
+                    failures.add(call.getKey() + " seq-scans " + scans + "\n" + sql + "\n" + plan.toPrettyString());
+                }
+            }
+        }
+        assertTrue(failures.isEmpty(), String.join("\n\n", failures));
+    }
+
+    // Repository method (name/parameter count, as overloads differ) → a call of it
+    private Map<String, Runnable> calls() {
+        Sort byDate = Sort.by(Sort.Direction.DESC, "date");
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+
+        calls.put(key(IncomeRepository.class, "findByProfileIdOrderByDateDesc", 1), () -> incomeRepository.findByProfileIdOrderByDateDesc(profileId));
+        calls.put(key(IncomeRepository.class, "findTop5ByProfileIdOrderByDateDesc", 1), () -> incomeRepository.findTop5ByProfileIdOrderByDateDesc(profileId));
+        calls.put(key(IncomeRepository.class, "findTotalIncomeByProfileId", 1), () -> incomeRepository.findTotalIncomeByProfileId(profileId));
+        calls.put(key(IncomeRepository.class, "countByProfileId", 1), () -> incomeRepository.countByProfileId(profileId));
+        calls.put(key(IncomeRepository.class, "findTotalsGroupedByProfileId", 0), () -> incomeRepository.findTotalsGroupedByProfileId());
+        calls.put(key(IncomeRepository.class, "findByProfileIdAndDateBetweenAndNameContainingIgnoreCase", 5),
+                () -> incomeRepository.findByProfileIdAndDateBetweenAndNameContainingIgnoreCase(profileId, START, END, "coffee", byDate));
+        calls.put(key(IncomeRepository.class, "findByProfileIdAndDateBetween", 3), () -> incomeRepository.findByProfileIdAndDateBetween(profileId, START, END));
+        calls.put(key(IncomeRepository.class, "findByProfileIdAndDateBetween", 4), () -> incomeRepository.findByProfileIdAndDateBetween(profileId, START, END, byDate));
+
+        calls.put(key(ExpenseRepository.class, "findByProfileIdOrderByDateDesc", 1), () -> expenseRepository.findByProfileIdOrderByDateDesc(profileId));
+        calls.put(key(ExpenseRepository.class, "findTop5ByProfileIdOrderByDateDesc", 1), () -> expenseRepository.findTop5ByProfileIdOrderByDateDesc(profileId));
+        calls.put(key(ExpenseRepository.class, "findTotalExpenseByProfileId", 1), () -> expenseRepository.findTotalExpenseByProfileId(profileId));
+        calls.put(key(ExpenseRepository.class, "countByProfileId", 1), () -> expenseRepository.countByProfileId(profileId));
+        calls.put(key(ExpenseRepository.class, "findTotalsGroupedByProfileId", 0), () -> expenseRepository.findTotalsGroupedByProfileId());
+        calls.put(key(ExpenseRepository.class, "findByProfileIdAndDateBetweenAndNameContainingIgnoreCase", 5),
+                () -> expenseRepository.findByProfileIdAndDateBetweenAndNameContainingIgnoreCase(profileId, START, END, "coffee", byDate));
+        calls.put(key(ExpenseRepository.class, "findByProfileIdAndDateBetween", 3), () -> expenseRepository.findByProfileIdAndDateBetween(profileId, START, END));
+        calls.put(key(ExpenseRepository.class, "findByProfileIdAndDateBetween", 4), () -> expenseRepository.findByProfileIdAndDateBetween(profileId, START, END, byDate));
+
+        calls.put(key(CategoryRepository.class, "findByProfileId", 1), () -> categoryRepository.findByProfileId(profileId));
+        calls.put(key(CategoryRepository.class, "findByIdAndProfileId", 2), () -> categoryRepository.findByIdAndProfileId(categoryId, profileId));
+        calls.put(key(CategoryRepository.class, "findByTypeAndProfileId", 2), () -> categoryRepository.findByTypeAndProfileId("expense", profileId));
+        calls.put(key(CategoryRepository.class, "existsByNameAndProfileId", 2), () -> categoryRepository.existsByNameAndProfileId("Food", profileId));
+        return calls;
+    }
+
+    private static String key(Class<?> repository, String method, int parameters) {
+        return repository.getSimpleName() + "." + method + "/" + parameters;
+    }
+
+    // JDBC's ? placeholders become $1, $2, ... of a prepared statement (Hibernate's SQL has no ? in
+    // literals); with force_generic_plan the NULL arguments don't shape the plan
+    private JsonNode explain(String sql) throws Exception {
+        Matcher placeholder = Pattern.compile("\\?").matcher(sql);
+        StringBuilder numbered = new StringBuilder();
+        int n = 0;
+        while (placeholder.find()) {
+            placeholder.appendReplacement(numbered, "\\$" + ++n);
+        }
+        placeholder.appendTail(numbered);
+        jdbcTemplate.execute("PREPARE captured AS " + numbered);
+        try {
+            String arguments = n == 0 ? "" : "(" + String.join(", ", Collections.nCopies(n, "NULL")) + ")";
+            String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) EXECUTE captured" + arguments, String.class);
+            return new ObjectMapper().readTree(json).get(0).get("Plan");
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE captured");
+        }
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> into) {
+        String relation = node.path("Relation Name").asText();
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && TABLES.contains(relation)) {
+            into.add(relation);
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, into);
+        }
+    }
+}
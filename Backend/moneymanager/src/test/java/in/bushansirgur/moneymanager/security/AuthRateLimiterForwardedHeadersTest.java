@@ -0,0 +1,81 @@
+package in.bushansirgur.moneymanager.security;
+
+import in.bushansirgur.moneymanager.config.GlobalExceptionHandler;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The limiter's IP bucket behind a reverse proxy, on a real Tomcat with the application's own
+ * properties: server.forward-headers-strategy makes getRemoteAddr() the X-Forwarded-For client
+ * (the test connects from loopback, which Tomcat trusts as a proxy), so clients sharing the
+ * proxy's address still get a bucket each.
+ */
+@SpringBootTest(classes = {AuthRateLimiter.class, GlobalExceptionHandler.class, AuthRateLimiterForwardedHeadersTest.Probe.class},
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"security.rate-limit.ip.capacity=1", "security.rate-limit.ip.per-minute=1"})
+@ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+        DispatcherServletAutoConfiguration.class, WebMvcAutoConfiguration.class,
+        HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+class AuthRateLimiterForwardedHeadersTest {
+
+    @RestController
+    static class Probe {
+
+        private final AuthRateLimiter authRateLimiter;
+
+        Probe(AuthRateLimiter authRateLimiter) {
+            this.authRateLimiter = authRateLimiter;
+        }
+
+        @PostMapping("/login")
+        String login(HttpServletRequest request) {
+            authRateLimiter.check(request, null);
+            return request.getRemoteAddr();
+        }
+    }
+
+    @LocalServerPort
+    int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void ipBucketIsKeyedOnTheForwardedClientAddress() throws Exception {
+        HttpResponse<String> first = login("203.0.113.7");
+        HttpResponse<String> otherClient = login("203.0.113.8");
+        HttpResponse<String> sameClientAgain = login("203.0.113.7");
+
+        assertEquals(200, first.statusCode());
+        assertEquals("203.0.113.7", first.body());
+        // Keyed on the proxy's address, this second client would already find the bucket empty
+        assertEquals(200, otherClient.statusCode());
+        assertEquals(429, sameClientAgain.statusCode());
+    }
+
+    private HttpResponse<String> login(String clientAddress) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1.0/login"))
+                .header("X-Forwarded-For", clientAddress)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,83 @@
+package in.bushansirgur.moneymanager.security;
+
+import in.bushansirgur.moneymanager.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthRateLimiterTest {
+
+    @Test
+    void check_rejectsEmailOnceBurstIsUsedUp() {
+        AuthRateLimiter limiter = new AuthRateLimiter(100, 100, 3, 3, 10, 1000);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> limiter.check(request, "User@Example.com "));
+        }
+        // Same mailbox, different spelling — still the same bucket
+        assertThrows(TooManyRequestsException.class, () -> limiter.check(request, "user@example.com"));
+        assertDoesNotThrow(() -> limiter.check(request, "other@example.com"));
+        assertEquals(1, limiter.stats().rejected());
+    }
+
+    @Test
+    void tryConsume_refillsAtConfiguredRate() {
+        AuthRateLimiter limiter = new AuthRateLimiter(100, 100, 1, 6, 10, 1000);
+        AuthRateLimiter.Policy policy = new AuthRateLimiter.Policy(1, 6); // one token every 10s
+        long now = System.currentTimeMillis();
+
+        assertTrue(limiter.tryConsume("k", policy, now));
+        assertFalse(limiter.tryConsume("k", policy, now + 5_000));
+        assertFalse(limiter.tryConsume("k", policy, now + 9_000));
+        assertTrue(limiter.tryConsume("k", policy, now + 10_000));
+    }
+
+    @Test
+    void evictIdle_dropsUntouchedBuckets() {
+        AtomicLong nanos = new AtomicLong();
+        AuthRateLimiter limiter = new AuthRateLimiter(100, 100, 5, 5, 1, 1000, nanos::get);
+        limiter.tryConsume("k", new AuthRateLimiter.Policy(5, 5), System.currentTimeMillis());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        limiter.evictIdle();
+        assertEquals(1, limiter.stats().buckets());
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        limiter.evictIdle();
+        assertEquals(0, limiter.stats().buckets());
+    }
+
+    @Test
+    void bucketCountStaysBoundedUnderAFloodOfKeys() {
+        AuthRateLimiter limiter = new AuthRateLimiter(100, 100, 5, 5, 10, 1000);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 50_000; i++) {
+            limiter.tryConsume("ip:" + i, new AuthRateLimiter.Policy(5, 5), now);
+        }
+        limiter.evictIdle();
+        assertTrue(limiter.stats().buckets() <= 1000);
+    }
+
+    @Test
+    void capacityBeyondWhatTheBucketStateHoldsIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AuthRateLimiter(AuthRateLimiter.MAX_CAPACITY + 1, 100, 5, 5, 10, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new AuthRateLimiter(100, 0, 5, 5, 10, 1000));
+
+        // The largest allowed capacity is counted exactly, not wrapped
+        AuthRateLimiter.Policy policy = new AuthRateLimiter.Policy(AuthRateLimiter.MAX_CAPACITY, 1);
+        AuthRateLimiter limiter = new AuthRateLimiter(100, 100, 5, 5, 10, 1000);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < AuthRateLimiter.MAX_CAPACITY; i++) {
+            assertTrue(limiter.tryConsume("k", policy, now));
+        }
+        assertFalse(limiter.tryConsume("k", policy, now));
+    }
+}
@@ -0,0 +1,29 @@
+package in.bushansirgur.moneymanager.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BCryptCostCalibratorTest {
+
+    @Test
+    void calibrate_neverGoesBelowMinimumCost() {
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(0, 4, 8, 0);
+        assertEquals(4, calibrator.calibrate());
+    }
+
+    @Test
+    void calibrate_staysWithinConfiguredRange() {
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(10_000, 4, 6, 0);
+        int strength = calibrator.calibrate();
+        assertTrue(strength >= 4 && strength <= 6);
+    }
+
+    @Test
+    void calibrate_usesPinnedCostWhenConfigured() {
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(0, 4, 14, 5);
+        assertEquals(5, calibrator.calibrate());
+        assertEquals(5, calibrator.getStrength());
+    }
+}
@@ -0,0 +1,90 @@
+package in.bushansirgur.moneymanager.security;
+
+import in.bushansirgur.moneymanager.entity.ProfileEntity;
+import in.bushansirgur.moneymanager.repository.ProfileRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenVersionRegistryTest {
+
+    private final ProfileRepository profileRepository = mock(ProfileRepository.class);
+    private final VerifiedTokenCache verifiedTokenCache = mock(VerifiedTokenCache.class);
+    private final AtomicLong nanos = new AtomicLong();
+
+    private TokenVersionRegistry registry(long maxSize) {
+        return new TokenVersionRegistry(profileRepository, verifiedTokenCache, maxSize, 30, nanos::get);
+    }
+
+    @Test
+    void revocationStoredByAnotherInstanceIsSeenOnceTheTtlPasses() {
+        // The profile row is the shared state: another instance bumps token_version to 1
+        when(profileRepository.findById(7L))
+                .thenReturn(Optional.of(profile(7L, 0)))
+                .thenReturn(Optional.of(profile(7L, 1)));
+        TokenVersionRegistry registry = registry(100);
+
+        assertTrue(registry.isCurrent(7L, 0));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(29));
+        assertTrue(registry.isCurrent(7L, 0));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertFalse(registry.isCurrent(7L, 0));
+        assertTrue(registry.isCurrent(7L, 1));
+        verify(profileRepository, times(2)).findById(7L);
+    }
+
+    @Test
+    void localRevocationTakesEffectAtOnce() {
+        when(profileRepository.findById(7L)).thenReturn(Optional.of(profile(7L, 0)));
+        TokenVersionRegistry registry = registry(100);
+
+        assertTrue(registry.isCurrent(7L, 0));
+        registry.update(7L, 1);
+
+        assertFalse(registry.isCurrent(7L, 0));
+        assertTrue(registry.isCurrent(7L, 1));
+        verify(verifiedTokenCache).evictProfile(7L);
+    }
+
+    @Test
+    void inactiveOrMissingProfilesNeverMatch() {
+        ProfileEntity inactive = profile(8L, 0);
+        inactive.setIsActive(false);
+        when(profileRepository.findById(8L)).thenReturn(Optional.of(inactive));
+        when(profileRepository.findById(9L)).thenReturn(Optional.empty());
+        TokenVersionRegistry registry = registry(100);
+
+        assertFalse(registry.isCurrent(8L, 0));
+        assertFalse(registry.isCurrent(9L, 0));
+        assertFalse(registry.isCurrent(9L, 0));
+        // Nothing is remembered for a missing profile
+        verify(profileRepository, times(2)).findById(9L);
+    }
+
+    @Test
+    void sizeStaysBoundedUnderManyProfiles() {
+        when(profileRepository.findById(anyLong())).thenAnswer(inv -> Optional.of(profile(inv.getArgument(0), 0)));
+        TokenVersionRegistry registry = registry(100);
+
+        for (long id = 1; id <= 10_000; id++) {
+            registry.isCurrent(id, 0);
+        }
+
+        assertEquals(100, registry.size());
+    }
+
+    private static ProfileEntity profile(Long id, int tokenVersion) {
+        return ProfileEntity.builder().id(id).isActive(true).tokenVersion(tokenVersion).build();
+    }
+}
@@ -0,0 +1,109 @@
+package in.bushansirgur.moneymanager.security;
+
+import in.bushansirgur.moneymanager.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VerifiedTokenCacheTest {
+
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final AtomicLong nanos = new AtomicLong();
+
+    private VerifiedTokenCache cache(long maxSize) {
+        return new VerifiedTokenCache(jwtUtil, maxSize, 30, nanos::get);
+    }
+
+    @Test
+    void verify_repeatedTokenSkipsCrypto() {
+        VerifiedTokenCache cache = cache(100);
+        VerifiedToken verified = token(1L, System.currentTimeMillis() + 60_000);
+        when(jwtUtil.verify("a")).thenReturn(verified);
+
+        assertSame(verified, cache.verify("a"));
+        assertSame(verified, cache.verify("a"));
+        assertSame(verified, cache.verify("a"));
+
+        verify(jwtUtil, times(1)).verify("a");
+        assertEquals(2, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void verify_entryEndsWhenTheTokenExpiresBeforeTheTtl() {
+        VerifiedTokenCache cache = cache(100);
+        when(jwtUtil.verify("a"))
+                .thenReturn(token(1L, System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(10)))
+                .thenThrow(new ExpiredJwtException(null, null, "expired"));
+
+        cache.verify("a");
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(9));
+        cache.verify("a");
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        assertThrows(ExpiredJwtException.class, () -> cache.verify("a"));
+
+        verify(jwtUtil, times(2)).verify("a");
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void verify_entryOutlivingTheTtlIsReverifiedBeforeTheTokenExpires() {
+        VerifiedTokenCache cache = cache(100);
+        VerifiedToken verified = token(1L, System.currentTimeMillis() + TimeUnit.HOURS.toMillis(2));
+        when(jwtUtil.verify("a")).thenReturn(verified);
+
+        cache.verify("a");
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(29));
+        cache.verify("a");
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        cache.verify("a");
+
+        verify(jwtUtil, times(2)).verify("a");
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void verify_staysWithinMaxSize() {
+        VerifiedTokenCache cache = cache(2);
+        long exp = System.currentTimeMillis() + 60_000;
+        when(jwtUtil.verify("a")).thenReturn(token(1L, exp));
+        when(jwtUtil.verify("b")).thenReturn(token(2L, exp));
+        when(jwtUtil.verify("c")).thenReturn(token(3L, exp));
+
+        cache.verify("a");
+        cache.verify("b");
+        cache.verify("c");
+
+        assertEquals(2, cache.stats().size());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void evictProfile_forcesFullVerificationAgain() {
+        VerifiedTokenCache cache = cache(100);
+        when(jwtUtil.verify("a")).thenReturn(token(1L, System.currentTimeMillis() + 60_000));
+
+        cache.verify("a");
+        cache.evictProfile(1L);
+        cache.verify("a");
+
+        verify(jwtUtil, times(2)).verify("a");
+    }
+
+    private static VerifiedToken token(Long profileId, long expiresAtMillis) {
+        return new VerifiedToken("user@example.com", profileId, 0, new Date(), new Date(expiresAtMillis), mock(Claims.class));
+    }
+}
@@ -0,0 +1,97 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.dto.ProfileTotalsDTO;
+import in.bushansirgur.moneymanager.entity.ProfileBalanceEntity;
+import in.bushansirgur.moneymanager.repository.ExpenseRepository;
+import in.bushansirgur.moneymanager.repository.IncomeRepository;
+import in.bushansirgur.moneymanager.repository.ProfileBalanceRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BalanceServiceTest {
+
+    private final ProfileBalanceRepository balanceRepository = mock(ProfileBalanceRepository.class);
+    private final IncomeRepository incomeRepository = mock(IncomeRepository.class);
+    private final ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final BalanceService balanceService = new BalanceService(balanceRepository, incomeRepository, expenseRepository,
+            mock(ApplicationEventPublisher.class), entityManager);
+
+    @Test
+    void verifyRepairsOnlyDriftedRows() {
+        ProfileBalanceEntity accurate = balance(1L, "50.00", 1, "20.00", 1);
+        ProfileBalanceEntity drifted = balance(2L, "10.00", 1, "0.00", 0);
+        ProfileBalanceEntity emptied = balance(3L, "5.00", 1, "0.00", 0);
+        when(balanceRepository.findAll()).thenReturn(List.of(accurate, drifted, emptied));
+        when(incomeRepository.findTotalsGroupedByProfileId()).thenReturn(List.of(
+                new ProfileTotalsDTO(1L, new BigDecimal("50"), 1),
+                new ProfileTotalsDTO(2L, new BigDecimal("25.00"), 2)));
+        when(expenseRepository.findTotalsGroupedByProfileId()).thenReturn(List.of(
+                new ProfileTotalsDTO(1L, new BigDecimal("20.00"), 1)));
+        totals(2L, "25.00", 2);
+        totals(3L, null, 0);
+
+        assertEquals(2, balanceService.verifyAndRepairAll());
+
+        assertEquals(new BigDecimal("25.00"), drifted.getTotalIncome());
+        assertEquals(2, drifted.getIncomeCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(emptied.getTotalIncome()));
+        assertEquals(0, emptied.getIncomeCount());
+        assertEquals(new BigDecimal("50.00"), accurate.getTotalIncome());
+        verify(entityManager, never()).refresh(accurate, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    @Test
+    void repairRecountsOnlyAfterLockingTheRow() {
+        // The snapshot says 10.00 / 1 row; a 5.00 income commits before the lock is granted
+        ProfileBalanceEntity stored = balance(2L, "0.00", 0, "0.00", 0);
+        when(balanceRepository.findAll()).thenReturn(List.of(stored));
+        when(incomeRepository.findTotalsGroupedByProfileId()).thenReturn(List.of(new ProfileTotalsDTO(2L, new BigDecimal("10.00"), 1)));
+        doAnswer(inv -> {
+            // The refresh reloads the row as that write left it
+            stored.setTotalIncome(new BigDecimal("5.00"));
+            stored.setIncomeCount(1);
+            return null;
+        }).when(entityManager).refresh(stored, LockModeType.PESSIMISTIC_WRITE);
+        totals(2L, "15.00", 2);
+
+        assertEquals(1, balanceService.verifyAndRepairAll());
+
+        InOrder inOrder = inOrder(entityManager, incomeRepository);
+        inOrder.verify(entityManager).refresh(stored, LockModeType.PESSIMISTIC_WRITE);
+        inOrder.verify(incomeRepository).findTotalIncomeByProfileId(2L);
+        assertEquals(new BigDecimal("15.00"), stored.getTotalIncome());
+        assertEquals(2, stored.getIncomeCount());
+    }
+
+    private void totals(Long profileId, String income, long incomeCount) {
+        when(incomeRepository.findTotalIncomeByProfileId(profileId)).thenReturn(income != null ? new BigDecimal(income) : null);
+        when(incomeRepository.countByProfileId(profileId)).thenReturn(incomeCount);
+    }
+
+    private static ProfileBalanceEntity balance(Long profileId, String income, long incomeCount, String expense, long expenseCount) {
+        return ProfileBalanceEntity.builder()
+                .profileId(profileId)
+                .totalIncome(new BigDecimal(income))
+                .incomeCount(incomeCount)
+                .totalExpense(new BigDecimal(expense))
+                .expenseCount(expenseCount)
+                .build();
+    }
+}
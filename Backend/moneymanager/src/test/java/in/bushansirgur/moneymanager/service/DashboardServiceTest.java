@@ -0,0 +1,136 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.config.CacheConfig;
+import in.bushansirgur.moneymanager.dto.DashboardSummary;
+import in.bushansirgur.moneymanager.dto.ExpenseDTO;
+import in.bushansirgur.moneymanager.dto.IncomeDTO;
+import in.bushansirgur.moneymanager.dto.RecentTransactionDTO;
+import in.bushansirgur.moneymanager.dto.TransactionViewRow;
+import in.bushansirgur.moneymanager.exception.ServiceUnavailableException;
+import in.bushansirgur.moneymanager.repository.DashboardQueryRepository;
+import in.bushansirgur.moneymanager.security.AuthenticatedProfile;
+import in.bushansirgur.moneymanager.service.DataVersionService.DataVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceTest {
+
+    private static final DataVersion VERSION = new DataVersion(7L, 1);
+
+    private final DashboardQueryRepository dashboardQueryRepository = mock(DashboardQueryRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private Authentication authentication;
+
+    @BeforeEach
+    void setUp() {
+        authentication = new UsernamePasswordAuthenticationToken(
+                new AuthenticatedProfile(7L, "user@example.com", 0), null, List.of());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void buildsEveryDashboardSectionFromOneQuery() {
+        AtomicReference<Authentication> seenByQuery = new AtomicReference<>();
+        LocalDateTime now = LocalDateTime.now();
+        when(dashboardQueryRepository.findSummary(7L)).thenAnswer(inv -> {
+            seenByQuery.set(SecurityContextHolder.getContext().getAuthentication());
+            return new DashboardSummary(new BigDecimal("500.00"), new BigDecimal("120.00"), List.of(
+                    row("income", 1L, now),
+                    row("expense", 2L, now.minusDays(1)),
+                    row("income", 3L, now.minusDays(2))));
+        });
+
+        DashboardService dashboardService = service(3000);
+        Map<String, Object> data = dashboardService.getDashboardData(VERSION);
+        dashboardService.getDashboardData(VERSION);
+
+        assertSame(authentication, seenByQuery.get());
+        // The second request is a cache hit: one load timed
+        assertEquals(1, dashboardService.stats().loads());
+        assertEquals(new BigDecimal("380.00"), data.get("totalBalance"));
+        assertEquals(List.of(1L, 2L, 3L), ((List<?>) data.get("recentTransactions")).stream()
+                .map(tx -> ((RecentTransactionDTO) tx).getId()).toList());
+        assertEquals(List.of(1L, 3L), ((List<?>) data.get("recent5Incomes")).stream()
+                .map(tx -> ((IncomeDTO) tx).getId()).toList());
+        assertEquals("Food", ((ExpenseDTO) ((List<?>) data.get("recent5Expenses")).get(0)).getCategoryName());
+    }
+
+    @Test
+    void loadRunsInATransactionTimedOutAtTheDeadlineRoundedUpToSeconds() {
+        when(dashboardQueryRepository.findSummary(7L)).thenReturn(new DashboardSummary(BigDecimal.ONE, BigDecimal.ZERO, List.of()));
+
+        service(2500).getDashboardData(VERSION);
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(3, definition.getValue().getTimeout());
+    }
+
+    @Test
+    void statementTimeoutAnswersServiceUnavailable() {
+        when(dashboardQueryRepository.findSummary(7L)).thenThrow(new QueryTimeoutException("statement timeout"));
+        DashboardService dashboardService = service(100);
+
+        assertThrows(ServiceUnavailableException.class, () -> dashboardService.getDashboardData(VERSION));
+        assertEquals(1, dashboardService.stats().deadlineExceeded());
+    }
+
+    @Test
+    void statementCancelledByPostgresAnswersServiceUnavailable() {
+        // How Spring translates PostgreSQL's "canceling statement due to statement timeout"
+        when(dashboardQueryRepository.findSummary(7L)).thenThrow(new TransientDataAccessResourceException("summary",
+                new SQLException("canceling statement due to statement timeout", "57014")));
+        DashboardService dashboardService = service(100);
+
+        assertThrows(ServiceUnavailableException.class, () -> dashboardService.getDashboardData(VERSION));
+        assertEquals(1, dashboardService.stats().deadlineExceeded());
+    }
+
+    @Test
+    void otherDatabaseErrorsAreNotReportedAsTimeouts() {
+        when(dashboardQueryRepository.findSummary(7L)).thenThrow(new TransientDataAccessResourceException("summary",
+                new SQLException("terminating connection", "57P01")));
+        DashboardService dashboardService = service(100);
+
+        assertThrows(TransientDataAccessResourceException.class, () -> dashboardService.getDashboardData(VERSION));
+        assertEquals(0, dashboardService.stats().deadlineExceeded());
+    }
+
+    private DashboardService service(long deadlineMillis) {
+        ProfileDataCache cache = new ProfileDataCache(new CacheConfig().cacheManager(100, 10, 100, 10));
+        return new DashboardService(dashboardQueryRepository, cache, transactionManager, deadlineMillis);
+    }
+
+    private static TransactionViewRow row(String type, Long id, LocalDateTime date) {
+        return new TransactionViewRow(type, id, "tx-" + id, null, new BigDecimal("1.00"),
+                date, date, date, 3L, "Food");
+    }
+}
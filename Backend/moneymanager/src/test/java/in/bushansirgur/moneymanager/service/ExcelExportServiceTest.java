@@ -0,0 +1,337 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.dto.TransactionRow;
+import in.bushansirgur.moneymanager.dto.TransactionViewRow;
+import in.bushansirgur.moneymanager.repository.TransactionStreamRepository;
+import in.bushansirgur.moneymanager.repository.TransactionViewRepository;
+import in.bushansirgur.moneymanager.util.ExportFormat;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ExcelExportServiceTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2026, 2, 1, 9, 0);
+
+    private final TransactionStreamRepository streamRepository = mock(TransactionStreamRepository.class);
+    private final TransactionViewRepository viewRepository = mock(TransactionViewRepository.class);
+    private final ProfileService profileService = mock(ProfileService.class);
+    private final ExcelExportService service = new ExcelExportService(streamRepository, viewRepository, profileService, 100);
+
+    @Test
+    void cursorRowsBecomeAWorkbookThatPoiReadsBack() throws Exception {
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        feed(List.of(
+                new TransactionRow(1L, "Rent <flat> & \"co\"\u0001", "", "Housing", 2L, new BigDecimal("1500.25"), DATE, DATE, null),
+                new TransactionRow(2L, null, "", "N/A", null, null, null, DATE, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, export(() -> out));
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Expenses");
+            assertEquals(3, sheet.getPhysicalNumberOfRows());
+            assertEquals("Category", sheet.getRow(0).getCell(2).getStringCellValue());
+            assertEquals(1, sheet.getRow(1).getCell(0).getNumericCellValue());
+            assertEquals("Rent <flat> & \"co\"", sheet.getRow(1).getCell(1).getStringCellValue());
+            assertEquals(1500.25, sheet.getRow(1).getCell(3).getNumericCellValue());
+            assertEquals("01 Feb 2026", sheet.getRow(1).getCell(4).getStringCellValue());
+            assertEquals("N/A", sheet.getRow(2).getCell(1).getStringCellValue());
+            assertEquals(0, sheet.getRow(2).getCell(3).getNumericCellValue());
+            assertEquals("N/A", sheet.getRow(2).getCell(4).getStringCellValue());
+        }
+    }
+
+    @Test
+    void csvQuotesOnlyWhatRfc4180RequiresAndGzipRoundTrips() throws Exception {
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        feed(List.of(
+                new TransactionRow(1L, "Rent, \"flat\"\r\n2", "", "Housing", 2L, new BigDecimal("-1500.250"), DATE, DATE, null),
+                new TransactionRow(2L, null, "", "N/A", null, null, null, DATE, null)));
+        String expected = "S.No,Name,Category,Amount,Date\r\n"
+                + "1,\"Rent, \"\"flat\"\"\r\n2\",Housing,-1500.250,01 Feb 2026\r\n"
+                + "2,N/A,N/A,0,N/A\r\n";
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        assertEquals(2, export(ExportFormat.CSV, () -> csv));
+        assertEquals(expected, csv.toString(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        assertEquals(2, export(ExportFormat.CSV_GZ, () -> gzip));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.toByteArray()))) {
+            assertEquals(expected, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void csvTextThatLooksLikeAFormulaIsWrittenAsText() throws Exception {
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        feed(List.of(
+                new TransactionRow(1L, "=HYPERLINK(\"http://x\",\"y\")", "", "+Food", 2L, new BigDecimal("-12.50"), DATE, DATE, null),
+                new TransactionRow(2L, "-5 refund", "", "@team", 2L, new BigDecimal("3.00"), DATE, DATE, null),
+                new TransactionRow(3L, "\tTab", "", "\rCR", 2L, BigDecimal.ONE, DATE, DATE, null),
+                new TransactionRow(4L, "Coffee = tea", "", "Food", 2L, BigDecimal.ONE, DATE, DATE, null)));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        export(ExportFormat.CSV, () -> csv);
+
+        // Apostrophe inside the quotes when quoted; the negative amount stays a number
+        assertEquals("S.No,Name,Category,Amount,Date\r\n"
+                + "1,\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",'+Food,-12.50,01 Feb 2026\r\n"
+                + "2,'-5 refund,'@team,3.00,01 Feb 2026\r\n"
+                + "3,'\tTab,\"'\rCR\",1,01 Feb 2026\r\n"
+                + "4,Coffee = tea,Food,1,01 Feb 2026\r\n", csv.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void fullReportKeepsTheDatabaseOrderAndLabelsEachRow() throws Exception {
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        doAnswer(inv -> {
+            Consumer<TransactionViewRow> consumer = inv.getArgument(7);
+            consumer.accept(new TransactionViewRow("expense", 5L, "Food", "", BigDecimal.TEN, DATE, DATE, null, 1L, "Food"));
+            consumer.accept(new TransactionViewRow("income", 5L, "Salary", "", BigDecimal.ONE, DATE.minusDays(1), DATE, null, 2L, "Job"));
+            return null;
+        }).when(viewRepository).forEachRow(eq(7L), any(), any(), any(), eq("date"), eq(Sort.Direction.DESC), anyInt(), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, service.exportFullReport(DATE.minusYears(1), DATE, "", ExportFormat.XLSX, () -> out));
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("All Transactions");
+            assertEquals("Expense", sheet.getRow(1).getCell(1).getStringCellValue());
+            assertEquals("Income", sheet.getRow(2).getCell(1).getStringCellValue());
+            assertEquals("Job", sheet.getRow(2).getCell(3).getStringCellValue());
+        }
+    }
+
+    @Test
+    void dailyReportExportsTheGivenProfileWithoutASignedInUser() throws Exception {
+        feedView(List.of(new TransactionViewRow("income", 5L, "Salary", "", new BigDecimal("12345678901234.56"),
+                DATE, DATE, null, 2L, "Job")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(1, service.exportFullReportFor(7L, DATE.minusDays(1), DATE, ExportFormat.XLSX, () -> out));
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            XSSFSheet sheet = workbook.getSheet("All Transactions");
+            assertEquals("Income", sheet.getRow(1).getCell(1).getStringCellValue());
+            // The amount as the database has it, not rounded through a double
+            assertEquals("12345678901234.56", sheet.getRow(1).getCell(4).getCTCell().getV());
+        }
+        verifyNoInteractions(profileService);
+    }
+
+    @Test
+    void analysisWorkbookAddsTotalsFromTheSamePass() throws Exception {
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        feedView(List.of(
+                new TransactionViewRow("income", 1L, "Salary", "", new BigDecimal("5000.00"), DATE, DATE, null, 1L, "Job"),
+                new TransactionViewRow("expense", 2L, "Rent", "", new BigDecimal("1500.25"), DATE, DATE, null, 2L, "Housing"),
+                new TransactionViewRow("expense", 3L, "Lunch", "", new BigDecimal("20.10"), DATE.minusMonths(1), DATE, null, 3L, "Food"),
+                new TransactionViewRow("expense", 4L, "Dinner", "", new BigDecimal("30.00"), DATE.minusMonths(1), DATE, null, 3L, "Food"),
+                new TransactionViewRow("income", 5L, "Gift", "", null, null, DATE, null, null, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(5, service.exportFullReportAnalysis(DATE.minusYears(1), DATE, "", () -> out));
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(List.of("All Transactions", "Summary", "By Category", "By Month"),
+                    List.of(workbook.getSheetName(0), workbook.getSheetName(1), workbook.getSheetName(2), workbook.getSheetName(3)));
+            assertEquals(6, workbook.getSheet("All Transactions").getPhysicalNumberOfRows());
+
+            Sheet summary = workbook.getSheet("Summary");
+            assertEquals("Total Income", summary.getRow(3).getCell(0).getStringCellValue());
+            assertEquals(5000.00, summary.getRow(3).getCell(1).getNumericCellValue());
+            assertEquals(1550.35, summary.getRow(4).getCell(1).getNumericCellValue());
+            assertEquals(3449.65, summary.getRow(5).getCell(1).getNumericCellValue());
+            assertEquals(2, summary.getRow(6).getCell(1).getNumericCellValue());
+            assertEquals(3, summary.getRow(7).getCell(1).getNumericCellValue());
+
+            // Income first, then each type's biggest categories
+            Sheet categories = workbook.getSheet("By Category");
+            assertEquals("Job", categories.getRow(1).getCell(1).getStringCellValue());
+            assertEquals(100.0, categories.getRow(1).getCell(4).getNumericCellValue());
+            assertEquals("N/A", categories.getRow(2).getCell(1).getStringCellValue());
+            assertEquals("Housing", categories.getRow(3).getCell(1).getStringCellValue());
+            assertEquals("Food", categories.getRow(4).getCell(1).getStringCellValue());
+            assertEquals(2, categories.getRow(4).getCell(2).getNumericCellValue());
+            assertEquals(50.10, categories.getRow(4).getCell(3).getNumericCellValue());
+            assertEquals(3.23, categories.getRow(4).getCell(4).getNumericCellValue());
+
+            Sheet months = workbook.getSheet("By Month");
+            assertEquals("Feb 2026", months.getRow(1).getCell(0).getStringCellValue());
+            assertEquals(3499.75, months.getRow(1).getCell(3).getNumericCellValue());
+            assertEquals("Jan 2026", months.getRow(2).getCell(0).getStringCellValue());
+            assertEquals(-50.10, months.getRow(2).getCell(3).getNumericCellValue());
+            assertEquals("No Date", months.getRow(3).getCell(0).getStringCellValue());
+            assertEquals(1, months.getRow(3).getCell(4).getNumericCellValue());
+        }
+    }
+
+    @Test
+    void analysisTotalsAmountsTooLargeForLongCents() throws Exception {
+        // Each fits NUMERIC(38, 2); their cents overflow a long on their own, let alone summed
+        BigDecimal large = new BigDecimal("999999999999999999999999999999999999.99");
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        feedView(List.of(
+                new TransactionViewRow("income", 1L, "Windfall", "", large, DATE, DATE, null, 1L, "Job"),
+                new TransactionViewRow("income", 2L, "Windfall", "", large, DATE, DATE, null, 1L, "Job"),
+                new TransactionViewRow("expense", 3L, "Yacht", "", new BigDecimal("0.01"), DATE, DATE, null, 2L, "Fun")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, service.exportFullReportAnalysis(DATE.minusYears(1), DATE, "", () -> out));
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(4, workbook.getNumberOfSheets());
+            // The raw cell text is the exact decimal; POI's double would round it
+            XSSFSheet summary = workbook.getSheet("Summary");
+            assertEquals("1999999999999999999999999999999999999.98", summary.getRow(3).getCell(1).getRawValue());
+            assertEquals("1999999999999999999999999999999999999.97", summary.getRow(5).getCell(1).getRawValue());
+            XSSFSheet categories = workbook.getSheet("By Category");
+            assertEquals("1999999999999999999999999999999999999.98", categories.getRow(1).getCell(3).getRawValue());
+            assertEquals("100.00", categories.getRow(1).getCell(4).getRawValue());
+            assertEquals("1999999999999999999999999999999999999.97", workbook.getSheet("By Month").getRow(1).getCell(3).getRawValue());
+        }
+    }
+
+    @Test
+    void failingQueryNeverOpensTheResponse() {
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        doThrow(new QueryTimeoutException("timeout")).when(streamRepository).forEachRow(anyString(), any(), any(), any(),
+                any(), anyString(), any(), anyInt(), any());
+        boolean[] opened = {false};
+
+        assertThrows(QueryTimeoutException.class, () -> export(() -> {
+            opened[0] = true;
+            return OutputStream.nullOutputStream();
+        }));
+        assertFalse(opened[0]);
+    }
+
+    @Test
+    void disconnectedClientStopsReadingTheCursor() {
+        AtomicInteger read = new AtomicInteger();
+        feed(1_000_000, read);
+        // A client that drops the connection after ~64 KB
+        OutputStream dropping = new OutputStream() {
+            private int bytes;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (++bytes > 64 * 1024) {
+                    throw new IOException("Broken pipe");
+                }
+            }
+        };
+
+        IOException e = assertThrows(IOException.class, () -> export(() -> dropping));
+        assertEquals("Broken pipe", e.getMessage());
+        assertTrue(read.get() < 50_000, "kept reading " + read.get() + " rows after the client left");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fullReportWritesEachRowBeforeTheCursorHandsOverTheNext() throws Exception {
+        // Flushed after every row, so what the client has received is exactly what was written
+        ExcelExportService flushingEachRow = new ExcelExportService(streamRepository, viewRepository, profileService, 1);
+        AtomicInteger linesOut = new AtomicInteger();
+        OutputStream client = new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (b == '\n') {
+                    linesOut.incrementAndGet();
+                }
+            }
+        };
+        int[] mostAhead = {0};
+        doAnswer(inv -> {
+            Consumer<TransactionViewRow> consumer = inv.getArgument(7);
+            for (int read = 1; read <= 1_000; read++) {
+                // Rows taken from the cursor, less data rows already sent (the header goes out with the first)
+                mostAhead[0] = Math.max(mostAhead[0], read - Math.max(linesOut.get() - 1, 0));
+                consumer.accept(new TransactionViewRow(read % 2 == 0 ? "income" : "expense", (long) read, "row-" + read, "",
+                        BigDecimal.ONE, DATE.minusMinutes(read), DATE, null, 2L, "Job"));
+            }
+            return null;
+        }).when(viewRepository).forEachRow(eq(7L), any(), any(), any(), eq("date"), eq(Sort.Direction.DESC),
+                anyInt(), any(Consumer.class));
+
+        assertEquals(1_000, flushingEachRow.exportFullReportFor(7L, DATE.minusYears(1), DATE, ExportFormat.CSV, () -> client));
+
+        assertEquals(1_001, linesOut.get());
+        assertEquals(1, mostAhead[0], "rows read from the cursor before earlier ones were written");
+    }
+
+    // Time and retained heap over 10k-1M rows: see benchmark/ExcelExportBenchmark
+
+    private long export(ExcelExportService.Body body) throws IOException {
+        return export(ExportFormat.XLSX, body);
+    }
+
+    private long export(ExportFormat format, ExcelExportService.Body body) throws IOException {
+        return service.exportTransactions("expense", DATE.minusYears(1), DATE, "", "date", Sort.Direction.DESC, format, body);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void feed(List<TransactionRow> rows) {
+        doAnswer(inv -> {
+            Consumer<TransactionRow> consumer = inv.getArgument(8);
+            rows.forEach(consumer);
+            return null;
+        }).when(streamRepository).forEachRow(eq("expense"), any(), any(), any(), anyString(), eq("date"),
+                eq(Sort.Direction.DESC), anyInt(), any(Consumer.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void feedView(List<TransactionViewRow> rows) {
+        doAnswer(inv -> {
+            Consumer<TransactionViewRow> consumer = inv.getArgument(7);
+            rows.forEach(consumer);
+            return null;
+        }).when(viewRepository).forEachRow(eq(7L), any(), any(), any(), eq("date"), eq(Sort.Direction.DESC),
+                anyInt(), any(Consumer.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void feed(int rows, AtomicInteger read) {
+        doAnswer(inv -> {
+            Consumer<TransactionRow> consumer = inv.getArgument(8);
+            for (int i = 0; i < rows; i++) {
+                read.incrementAndGet();
+                consumer.accept(new TransactionRow((long) i, "row-" + i, "", "Food", 3L, BigDecimal.valueOf(i, 2), DATE, DATE, null));
+            }
+            return null;
+        }).when(streamRepository).forEachRow(eq("expense"), any(), any(), any(), anyString(), eq("date"),
+                eq(Sort.Direction.DESC), anyInt(), any(Consumer.class));
+    }
+}
@@ -0,0 +1,100 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.dto.ExpenseDTO;
+import in.bushansirgur.moneymanager.entity.CategoryEntity;
+import in.bushansirgur.moneymanager.entity.ExpenseEntity;
+import in.bushansirgur.moneymanager.entity.ProfileEntity;
+import in.bushansirgur.moneymanager.event.ProfileDataChangedEvent;
+import in.bushansirgur.moneymanager.repository.CategoryRepository;
+import in.bushansirgur.moneymanager.repository.ExpenseRepository;
+import in.bushansirgur.moneymanager.repository.TransactionPageRepository;
+import in.bushansirgur.moneymanager.util.KeysetCursorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExpenseServiceTest {
+
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+    private final ProfileService profileService = mock(ProfileService.class);
+    private final BalanceService balanceService = mock(BalanceService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private ExpenseService expenseService;
+
+    private final ProfileEntity profile = ProfileEntity.builder().id(7L).build();
+    private final CategoryEntity category = CategoryEntity.builder().id(3L).name("Food").type("expense").build();
+
+    @BeforeEach
+    void setUp() {
+        expenseService = new ExpenseService(categoryRepository, expenseRepository, profileService, balanceService, eventPublisher,
+                mock(TransactionPageRepository.class), new KeysetCursorCodec("test-secret"));
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        when(profileService.getCurrentProfileReference()).thenReturn(profile);
+        when(expenseRepository.save(any(ExpenseEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void addRecordsAmountAndOneRow() {
+        when(categoryRepository.findByIdAndProfileId(3L, 7L)).thenReturn(Optional.of(category));
+        ExpenseDTO dto = ExpenseDTO.builder().name("Lunch").amount(new BigDecimal("12.50")).categoryId(3L).build();
+
+        expenseService.addExpense(dto);
+
+        verify(balanceService).recordExpenseChange(7L, new BigDecimal("12.50"), 1);
+    }
+
+    @Test
+    void updateRecordsOnlyTheDifference() {
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(expense(new BigDecimal("40.00"))));
+
+        expenseService.updateExpense(1L, ExpenseDTO.builder().amount(new BigDecimal("55.00")).build());
+
+        verify(balanceService).recordExpenseChange(7L, new BigDecimal("15.00"), 0);
+    }
+
+    @Test
+    void updateWithoutAmountChangeLeavesBalanceAlone() {
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(expense(new BigDecimal("40.00"))));
+
+        expenseService.updateExpense(1L, ExpenseDTO.builder().name("Renamed").build());
+
+        verify(balanceService, never()).recordExpenseChange(anyLong(), any(), eq(0L));
+        // The name still shows on the dashboard, so cached copies must go
+        verify(eventPublisher).publishEvent(ProfileDataChangedEvent.transactions(7L));
+    }
+
+    @Test
+    void deleteSubtractsAmountAndRow() {
+        ExpenseEntity existing = expense(new BigDecimal("40.00"));
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        expenseService.deleteExpense(1L);
+
+        verify(expenseRepository).delete(existing);
+        verify(balanceService).recordExpenseChange(7L, new BigDecimal("-40.00"), -1);
+    }
+
+    private ExpenseEntity expense(BigDecimal amount) {
+        return ExpenseEntity.builder()
+                .id(1L)
+                .name("Groceries")
+                .amount(amount)
+                .date(LocalDateTime.now())
+                .profile(profile)
+                .category(category)
+                .build();
+    }
+}
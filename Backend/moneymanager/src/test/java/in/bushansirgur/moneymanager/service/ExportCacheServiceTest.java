@@ -0,0 +1,161 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.event.ProfileDataChangedEvent;
+import in.bushansirgur.moneymanager.util.ExportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportCacheServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 3, 31, 23, 59, 59);
+
+    @TempDir
+    Path directory;
+
+    private final DataVersionService dataVersionService = mock(DataVersionService.class);
+    private final ProfileService profileService = mock(ProfileService.class);
+    private final AtomicInteger generated = new AtomicInteger();
+
+    @BeforeEach
+    void currentProfile() {
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        when(dataVersionService.currentVersion(7L)).thenReturn(1L);
+    }
+
+    @Test
+    void repeatedRequestIsServedFromDiskUntilTheDataVersionMoves() throws Exception {
+        ExportCacheService cache = cache(1024);
+
+        assertEquals(100, fetch(cache, "income", ExportFormat.XLSX, 100));
+        assertEquals(100, fetch(cache, "income", ExportFormat.XLSX, 100));
+        assertEquals(1, generated.get());
+
+        fetch(cache, "income", ExportFormat.CSV, 100);
+        assertEquals(2, generated.get());
+        assertEquals(List.of("csv", "xlsx"), extensions());
+
+        when(dataVersionService.currentVersion(7L)).thenReturn(2L);
+        fetch(cache, "income", ExportFormat.XLSX, 100);
+        assertEquals(3, generated.get());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreDeletedOnceOverBudget() throws Exception {
+        ExportCacheService cache = cache(250);
+        fetch(cache, "income", ExportFormat.XLSX, 100);
+        fetch(cache, "expense", ExportFormat.XLSX, 100);
+        fetch(cache, "income", ExportFormat.XLSX, 100);
+
+        // 300 bytes > 250: expense was used least recently
+        fetch(cache, "full", ExportFormat.XLSX, 100);
+
+        assertEquals(2, extensions().size());
+        fetch(cache, "income", ExportFormat.XLSX, 100);
+        assertEquals(3, generated.get());
+        fetch(cache, "expense", ExportFormat.XLSX, 100);
+        assertEquals(4, generated.get());
+    }
+
+    @Test
+    void committedWriteDropsOnlyThatProfilesEntries() throws Exception {
+        ExportCacheService cache = cache(1024);
+        fetch(cache, "income", ExportFormat.XLSX, 10);
+        when(profileService.getCurrentProfileId()).thenReturn(8L);
+        fetch(cache, "income", ExportFormat.XLSX, 10);
+
+        cache.onProfileDataChanged(ProfileDataChangedEvent.transactions(7L));
+
+        assertEquals(1, extensions().size());
+        fetch(cache, "income", ExportFormat.XLSX, 10);
+        assertEquals(2, generated.get());
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        fetch(cache, "income", ExportFormat.XLSX, 10);
+        assertEquals(3, generated.get());
+    }
+
+    @Test
+    void exportHandedOutIsReadInFullAfterItsFileIsDeleted() throws Exception {
+        ExportCacheService cache = cache(150);
+        try (ExportCacheService.CachedExport hit = get(cache, "income", ExportFormat.XLSX, 100);
+             ExportCacheService.CachedExport evicted = get(cache, "income", ExportFormat.XLSX, 100)) {
+            assertEquals(1, generated.get());
+
+            // evicted by the next entry, hit dropped by a commit — both before either is read
+            try (ExportCacheService.CachedExport other = get(cache, "expense", ExportFormat.XLSX, 100)) {
+                assertEquals(100, other.size());
+            }
+            cache.onProfileDataChanged(ProfileDataChangedEvent.transactions(7L));
+            assertEquals(List.of(), extensions());
+
+            assertArrayEquals(content("income", 100), hit.readAllBytes());
+            assertArrayEquals(content("income", 100), evicted.readAllBytes());
+        }
+    }
+
+    @Test
+    void failedExportLeavesNothingBehind() throws Exception {
+        ExportCacheService cache = cache(1024);
+
+        assertThrows(IOException.class, () -> cache.get("income", ExportFormat.XLSX, START, END, "", "date,DESC", out -> {
+            out.write(new byte[64]);
+            throw new IOException("connection reset");
+        }));
+
+        assertEquals(List.of(), extensions());
+        fetch(cache, "income", ExportFormat.XLSX, 10);
+        assertEquals(1, generated.get());
+    }
+
+    private ExportCacheService cache(long maxBytes) throws IOException {
+        return new ExportCacheService(mock(ExcelExportService.class), dataVersionService, profileService,
+                directory.toString(), maxBytes);
+    }
+
+    private long fetch(ExportCacheService cache, String report, ExportFormat format, int bytes) throws IOException {
+        try (ExportCacheService.CachedExport export = get(cache, report, format, bytes)) {
+            assertEquals(format, export.format());
+            return export.readAllBytes().length;
+        }
+    }
+
+    private ExportCacheService.CachedExport get(ExportCacheService cache, String report, ExportFormat format,
+                                                int bytes) throws IOException {
+        return cache.get(report, format, START, END, "", "date,DESC", out -> {
+            generated.incrementAndGet();
+            out.write(content(report, bytes));
+            return bytes;
+        });
+    }
+
+    private static byte[] content(String report, int bytes) {
+        byte[] content = new byte[bytes];
+        Arrays.fill(content, (byte) report.charAt(0));
+        return content;
+    }
+
+    // Extensions of the cached files, sorted
+    private List<String> extensions() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .map(name -> name.substring(name.indexOf('.') + 1))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
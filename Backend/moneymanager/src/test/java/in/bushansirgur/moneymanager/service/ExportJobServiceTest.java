@@ -0,0 +1,166 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.dto.ExportJobDTO;
+import in.bushansirgur.moneymanager.exception.ConflictException;
+import in.bushansirgur.moneymanager.exception.ResourceNotFoundException;
+import in.bushansirgur.moneymanager.exception.TooManyRequestsException;
+import in.bushansirgur.moneymanager.util.ExportFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportJobServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2026, 12, 31, 23, 59);
+
+    @TempDir
+    Path directory;
+
+    private final ExcelExportService excelExportService = mock(ExcelExportService.class);
+    private final ProfileService profileService = mock(ProfileService.class);
+    private ExportJobService service;
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void finishedJobIsDownloadableOnlyByItsOwnerAndExpiresAfterTtl() throws Exception {
+        service = service(2, 0);
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        doAnswer(inv -> {
+            ExcelExportService.Body body = inv.getArgument(4);
+            body.open().write("workbook".getBytes(StandardCharsets.UTF_8));
+            return 42L;
+        }).when(excelExportService).exportFullReport(eq(START), eq(END), eq(""), eq(ExportFormat.CSV), any());
+
+        ExportJobDTO submitted = service.submitFullReport(START, END, "", ExportFormat.CSV, false, "full_report.csv");
+        ExportJobDTO done = awaitFinished(submitted.id());
+
+        assertEquals("DONE", done.status());
+        assertEquals(42, done.rows());
+        assertEquals(8, done.bytes());
+        ExportJobService.ExportFile file = service.getFile(submitted.id());
+        assertEquals("full_report.csv", file.filename());
+        assertEquals(ExportFormat.CSV, file.format());
+        assertTrue(file.path().toString().endsWith(".csv"));
+        assertEquals("workbook", Files.readString(file.path()));
+
+        when(profileService.getCurrentProfileId()).thenReturn(8L);
+        assertThrows(ResourceNotFoundException.class, () -> service.getJob(submitted.id()));
+
+        // ttl-minutes = 0: the next sweep removes the job and its file
+        service.removeExpired();
+        assertFalse(Files.exists(file.path()));
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        assertThrows(ResourceNotFoundException.class, () -> service.getJob(submitted.id()));
+    }
+
+    @Test
+    void profileCapCountsQueuedAndRunningJobs() throws Exception {
+        service = service(1, 60);
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 0L;
+        }).when(excelExportService).exportFullReport(any(), any(), any(), any(), any());
+
+        ExportJobDTO running = service.submitFullReport(START, END, "", ExportFormat.XLSX, false, "a.xlsx");
+        assertThrows(ConflictException.class, () -> service.getFile(running.id()));
+        assertThrows(TooManyRequestsException.class,
+                () -> service.submitFullReport(START, END, "", ExportFormat.XLSX, false, "b.xlsx"));
+
+        release.countDown();
+        awaitFinished(running.id());
+        // Accepted again now the first one is done; it may already be running or finished
+        ExportJobDTO next = service.submitFullReport(START, END, "", ExportFormat.XLSX, false, "c.xlsx");
+        assertEquals("DONE", awaitFinished(next.id()).status());
+    }
+
+    @Test
+    void shutdownInterruptsRunningExportAndWaitsForItsPartialFileToGo() throws Exception {
+        service = service(2, 60);
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        CountDownLatch writing = new CountDownLatch(1);
+        doAnswer(inv -> {
+            ExcelExportService.Body body = inv.getArgument(4);
+            body.open().write(new byte[128 * 1024]);
+            writing.countDown();
+            // Stops early on the interrupt but returns normally, keeping the flag set
+            try {
+                new CountDownLatch(1).await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 0L;
+        }).when(excelExportService).exportFullReport(any(), any(), any(), any(), any());
+
+        ExportJobDTO job = service.submitFullReport(START, END, "", ExportFormat.XLSX, false, "a.xlsx");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        service.shutdown();
+
+        assertEquals("FAILED", service.getJob(job.id()).status());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void failedExportLeavesNoPartialFile() throws Exception {
+        service = service(2, 60);
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        doAnswer(inv -> {
+            ExcelExportService.Body body = inv.getArgument(4);
+            body.open().write(new byte[1024]);
+            throw new IOException("disk full");
+        }).when(excelExportService).exportFullReport(any(), any(), any(), any(), any());
+
+        ExportJobDTO failed = awaitFinished(service.submitFullReport(START, END, "", ExportFormat.XLSX, false, "a.xlsx").id());
+
+        assertEquals("FAILED", failed.status());
+        assertTrue(failed.error().startsWith("The export could not be generated"));
+        assertThrows(ConflictException.class, () -> service.getFile(failed.id()));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private ExportJobService service(int perProfileLimit, long ttlMinutes) throws IOException {
+        return new ExportJobService(excelExportService, profileService, directory.toString(), 2, 4, perProfileLimit, ttlMinutes);
+    }
+
+    private ExportJobDTO awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            ExportJobDTO job = service.getJob(id);
+            if (job.status().equals("DONE") || job.status().equals("FAILED")) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("export job " + id + " did not finish");
+    }
+}
@@ -0,0 +1,70 @@
+package in.bushansirgur.moneymanager.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import in.bushansirgur.moneymanager.dto.TransactionRow;
+import in.bushansirgur.moneymanager.repository.TransactionStreamRepository;
+import in.bushansirgur.moneymanager.repository.TransactionViewRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FilterStreamServiceTest {
+
+    private final TransactionStreamRepository repository = mock(TransactionStreamRepository.class);
+    private final ProfileService profileService = mock(ProfileService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final FilterStreamService service = new FilterStreamService(repository, mock(TransactionViewRepository.class), profileService, objectMapper, 500);
+
+    @Test
+    void writesAJsonArrayShapedLikeTheListResponse() throws Exception {
+        feed(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, write(out));
+
+        JsonNode json = objectMapper.readTree(out.toByteArray());
+        assertEquals(3, json.size());
+        assertEquals("row-2", json.get(2).get("name").asText());
+        assertEquals("Food", json.get(0).get("categoryName").asText());
+        assertTrue(json.get(0).get("date").isTextual());
+    }
+
+    private long write(OutputStream out) throws Exception {
+        return service.writeFiltered("income", LocalDateTime.MIN, LocalDateTime.MAX, "", "date", Sort.Direction.DESC, out);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void feed(int rows) {
+        when(profileService.getCurrentProfileId()).thenReturn(7L);
+        doAnswer(inv -> {
+            Consumer<TransactionRow> consumer = inv.getArgument(8);
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < rows; i++) {
+                consumer.accept(new TransactionRow((long) i, "row-" + i, "icon", "Food", 3L,
+                        BigDecimal.valueOf(i, 2), now, now, now));
+            }
+            return null;
+        }).when(repository).forEachRow(eq("income"), eq(7L), any(), any(), anyString(), eq("date"),
+                eq(Sort.Direction.DESC), anyInt(), any(Consumer.class));
+    }
+}
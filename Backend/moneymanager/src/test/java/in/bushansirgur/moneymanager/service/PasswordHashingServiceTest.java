@@ -0,0 +1,66 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingServiceTest {
+
+    @Test
+    void encode_rejectsImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        PasswordHashingService service = new PasswordHashingService(encoder, 1, 1, 5000);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> service.encode("first"));   // occupies the only worker
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> service.encode("second"));  // fills the queue
+            waitUntilQueued(service, 1);
+
+            long start = System.nanoTime();
+            assertThrows(ServiceUnavailableException.class, () -> service.encode("third"));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+            assertEquals(1, service.stats().rejected());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void matches_recordsHashTimings() {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.matches("secret", "hash")).thenReturn(true);
+        PasswordHashingService service = new PasswordHashingService(encoder, 1, 4, 5000);
+
+        assertTrue(service.matches("secret", "hash"));
+        assertEquals(1, service.stats().completed());
+        service.shutdown();
+    }
+
+    private static void waitUntilQueued(PasswordHashingService service, int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && service.stats().queued() < expected; i++) {
+            Thread.sleep(10);
+        }
+    }
+}
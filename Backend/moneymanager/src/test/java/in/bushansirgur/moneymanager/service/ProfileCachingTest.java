@@ -0,0 +1,185 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.config.CacheConfig;
+import in.bushansirgur.moneymanager.dto.AuthDTO;
+import in.bushansirgur.moneymanager.dto.CategoryDTO;
+import in.bushansirgur.moneymanager.dto.ProfileDTO;
+import in.bushansirgur.moneymanager.entity.ProfileEntity;
+import in.bushansirgur.moneymanager.event.ProfileDataChangedEvent;
+import in.bushansirgur.moneymanager.exception.ResourceNotFoundException;
+import in.bushansirgur.moneymanager.repository.ProfileDataVersionRepository;
+import in.bushansirgur.moneymanager.repository.ProfileRepository;
+import in.bushansirgur.moneymanager.security.AuthenticatedProfile;
+import in.bushansirgur.moneymanager.security.TokenVersionRegistry;
+import in.bushansirgur.moneymanager.service.DataVersionService.DataVersion;
+import in.bushansirgur.moneymanager.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ProfileService and ProfileDataCache wired with the application's real caching: @EnableCaching
+ * and the Caffeine CacheManager from CacheConfig. Caching was switched off once because a cached
+ * "no such email" outlived the registration that created it; these tests would catch a cache
+ * annotation coming back on ProfileService or ProfileRepository, and check that a new profile's data is only ever
+ * served from entries keyed by its current data version.
+ */
+@SpringJUnitConfig({CacheConfig.class, ProfileDataCache.class, ProfileService.class, DataVersionService.class,
+        ProfileCachingTest.Repositories.class})
+@TestPropertySource(properties = "app.activation.url=http://localhost")
+class ProfileCachingTest {
+
+    // Stubbed directly; the bean ProfileService gets is whatever proxy the caching set-up wraps around it
+    private static final ProfileRepository profileRepository = mock(ProfileRepository.class);
+
+    // A plain bean rather than @MockitoBean, so cache annotations on the repository would take effect
+    @Configuration
+    static class Repositories {
+
+        @Bean
+        ProfileRepository profileRepository() {
+            return profileRepository;
+        }
+    }
+
+    @MockitoBean
+    ProfileDataVersionRepository dataVersionRepository;
+
+    @MockitoBean
+    PasswordHashingService passwordHashingService;
+
+    @MockitoBean
+    EmailService emailService;
+
+    @MockitoBean
+    JwtUtil jwtUtil;
+
+    @MockitoBean
+    TokenVersionRegistry tokenVersionRegistry;
+
+    @MockitoBean
+    CurrentProfileHolder currentProfileHolder;
+
+    @Autowired
+    ProfileService profileService;
+
+    @Autowired
+    DataVersionService dataVersionService;
+
+    @Autowired
+    ProfileDataCache profileDataCache;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    private final Map<String, ProfileEntity> profiles = new ConcurrentHashMap<>();
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        reset(profileRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void registerThenLogin_seesTheNewProfile() {
+        backRepositoriesWithMaps();
+        when(passwordHashingService.encode("secret1")).thenReturn("{bcrypt}hash");
+        when(passwordHashingService.matches("secret1", "{bcrypt}hash")).thenReturn(true);
+        Map<String, ProfileDataCache.Stats> before = profileDataCache.stats();
+
+        // The lookup whose empty result used to be cached
+        assertThrows(ResourceNotFoundException.class,
+                () -> profileService.authenticateAndGenerateToken(new AuthDTO("new@example.com", "secret1")));
+        profileService.registerProfile(ProfileDTO.builder()
+                .fullName("New User").email("New@Example.com").password("secret1").build());
+        profiles.get("new@example.com").setIsActive(true);
+        Map<String, Object> response = profileService.authenticateAndGenerateToken(new AuthDTO("new@example.com", "secret1"));
+
+        assertEquals(42L, response.get("id"));
+        // Login, registration check, login: every one reached the store
+        verify(profileRepository, times(3)).findByEmail("new@example.com");
+        // and none of them left anything behind in a cache
+        assertEquals(Set.of(CacheConfig.DASHBOARD, CacheConfig.CATEGORIES), Set.copyOf(cacheManager.getCacheNames()));
+        assertEquals(before, profileDataCache.stats());
+    }
+
+    @Test
+    void newProfilesDataMissesUntilCachedAtItsVersionAndMissesAgainAfterAWrite() {
+        backRepositoriesWithMaps();
+        when(passwordHashingService.encode("secret1")).thenReturn("{bcrypt}hash");
+        profileService.registerProfile(ProfileDTO.builder()
+                .fullName("New User").email("new@example.com").password("secret1").build());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedProfile(42L, "new@example.com", 0), null, List.of()));
+        AtomicInteger loads = new AtomicInteger();
+        ProfileDataCache.Stats before = profileDataCache.stats().get(CacheConfig.CATEGORIES);
+
+        DataVersion registered = dataVersionService.current();
+        categories(registered, loads);
+        categories(dataVersionService.current(), loads);
+        dataVersionService.onProfileDataChanged(ProfileDataChangedEvent.categories(42L));
+        DataVersion afterWrite = dataVersionService.current();
+        categories(afterWrite, loads);
+
+        assertEquals(new DataVersion(42L, 0), registered);
+        assertEquals(new DataVersion(42L, 1), afterWrite);
+        assertEquals(2, loads.get());
+        ProfileDataCache.Stats stats = profileDataCache.stats().get(CacheConfig.CATEGORIES);
+        assertEquals(2, stats.misses() - before.misses());
+        assertEquals(1, stats.hits() - before.hits());
+    }
+
+    private void categories(DataVersion version, AtomicInteger loads) {
+        profileDataCache.categories(version, ProfileDataCache.ALL_TYPES, () -> {
+            loads.incrementAndGet();
+            return List.<CategoryDTO>of();
+        });
+    }
+
+    private void backRepositoriesWithMaps() {
+        when(profileRepository.findByEmail(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(profiles.get(inv.<String>getArgument(0))));
+        when(profileRepository.save(any(ProfileEntity.class))).thenAnswer(inv -> {
+            ProfileEntity saved = inv.getArgument(0);
+            saved.setId(42L);
+            profiles.put(saved.getEmail(), saved);
+            return saved;
+        });
+        when(dataVersionRepository.findVersionByProfileId(anyLong()))
+                .thenAnswer(inv -> Optional.ofNullable(versions.get(inv.<Long>getArgument(0))));
+        when(dataVersionRepository.increment(anyLong()))
+                .thenAnswer(inv -> versions.merge(inv.<Long>getArgument(0), 1L, Long::sum).intValue());
+    }
+}
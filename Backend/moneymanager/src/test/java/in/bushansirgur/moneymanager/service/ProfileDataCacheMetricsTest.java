@@ -0,0 +1,58 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.config.CacheConfig;
+import in.bushansirgur.moneymanager.dto.CategoryDTO;
+import in.bushansirgur.moneymanager.service.DataVersionService.DataVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.cache.CacheMetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The cache statistics reach Micrometer: CacheConfig's caches with the actuator's metrics
+ * auto-configuration, as the application runs them, read back through the meter registry that
+ * /actuator/metrics serves.
+ */
+@SpringJUnitConfig({CacheConfig.class, ProfileDataCache.class})
+@ImportAutoConfiguration({MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class,
+        SimpleMetricsExportAutoConfiguration.class, CacheMetricsAutoConfiguration.class})
+class ProfileDataCacheMetricsTest {
+
+    @Autowired
+    ProfileDataCache profileDataCache;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void hitsAndMissesOfBothCachesAreMeters() {
+        double dashboardHits = gets(CacheConfig.DASHBOARD, "hit");
+        double dashboardMisses = gets(CacheConfig.DASHBOARD, "miss");
+        double categoryMisses = gets(CacheConfig.CATEGORIES, "miss");
+
+        DataVersion version = new DataVersion(1L, 1);
+        profileDataCache.dashboard(version, () -> Map.of("totalBalance", 0));
+        profileDataCache.dashboard(version, () -> Map.of("totalBalance", 0));
+        profileDataCache.dashboard(version, () -> Map.of("totalBalance", 0));
+        profileDataCache.categories(version, ProfileDataCache.ALL_TYPES, List::<CategoryDTO>of);
+
+        assertEquals(2, gets(CacheConfig.DASHBOARD, "hit") - dashboardHits);
+        assertEquals(1, gets(CacheConfig.DASHBOARD, "miss") - dashboardMisses);
+        assertEquals(1, gets(CacheConfig.CATEGORIES, "miss") - categoryMisses);
+        assertEquals(profileDataCache.stats().get(CacheConfig.DASHBOARD).hits(), (long) gets(CacheConfig.DASHBOARD, "hit"));
+    }
+
+    private double gets(String cache, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,67 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.config.CacheConfig;
+import in.bushansirgur.moneymanager.dto.CategoryDTO;
+import in.bushansirgur.moneymanager.service.DataVersionService.DataVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProfileDataCacheTest {
+
+    private final CacheManager cacheManager = new CacheConfig().cacheManager(100, 10, 100, 10);
+    private final ProfileDataCache cache = new ProfileDataCache(cacheManager);
+
+    @Test
+    void onlyDeclaredCachesExist() {
+        // Profiles / auth lookups must never be cacheable, even by a stray @Cacheable
+        assertNull(cacheManager.getCache("profiles"));
+        assertNull(cacheManager.getCache("users"));
+        assertEquals(List.of(CacheConfig.DASHBOARD, CacheConfig.CATEGORIES).stream().sorted().toList(),
+                cacheManager.getCacheNames().stream().sorted().toList());
+    }
+
+    @Test
+    void newVersionMissesAndOtherProfilesKeepTheirEntries() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Map<String, Object>> loader = () -> Map.of("load", loads.incrementAndGet());
+
+        cache.dashboard(new DataVersion(1L, 1), loader);
+        cache.dashboard(new DataVersion(1L, 1), loader);
+        cache.dashboard(new DataVersion(2L, 1), loader);
+        assertEquals(2, loads.get());
+
+        // Profile 1 committed a write
+        assertEquals(Map.of("load", 3), cache.dashboard(new DataVersion(1L, 2), loader));
+        cache.dashboard(new DataVersion(2L, 1), loader);
+
+        assertEquals(3, loads.get());
+        assertEquals(2, cache.stats().get(CacheConfig.DASHBOARD).hits());
+    }
+
+    @Test
+    void loadThatOverlapsACommitStaysUnderTheVersionItStartedWith() {
+        // A loader that read before the commit finishes after it: its (older) list is
+        // cached under v1, so the first v2 read loads again instead of getting it
+        cache.categories(new DataVersion(1L, 1), "EXPENSE", () -> List.of(category("Food")));
+
+        List<CategoryDTO> atV2 = cache.categories(new DataVersion(1L, 2), "EXPENSE",
+                () -> List.of(category("Food"), category("Rent")));
+
+        assertEquals(2, atV2.size());
+        assertEquals(1, cache.categories(new DataVersion(1L, 1), "EXPENSE", List::of).size());
+        assertEquals(2, cache.categories(new DataVersion(1L, 2), "EXPENSE", List::of).size());
+        assertEquals(0, cache.categories(new DataVersion(1L, 2), ProfileDataCache.ALL_TYPES, List::of).size());
+    }
+
+    private static CategoryDTO category(String name) {
+        return CategoryDTO.builder().name(name).type("EXPENSE").build();
+    }
+}
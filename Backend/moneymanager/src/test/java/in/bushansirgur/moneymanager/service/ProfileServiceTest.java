@@ -0,0 +1,108 @@
+package in.bushansirgur.moneymanager.service;
+
+import in.bushansirgur.moneymanager.dto.AuthDTO;
+import in.bushansirgur.moneymanager.entity.ProfileEntity;
+import in.bushansirgur.moneymanager.repository.ProfileRepository;
+import in.bushansirgur.moneymanager.security.AuthenticatedProfile;
+import in.bushansirgur.moneymanager.security.TokenVersionRegistry;
+import in.bushansirgur.moneymanager.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ProfileServiceTest {
+
+    private final ProfileRepository profileRepository = mock(ProfileRepository.class);
+    private final PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+    private CurrentProfileHolder currentProfileHolder;
+    private ProfileService profileService;
+
+    @BeforeEach
+    void setUp() {
+        currentProfileHolder = new CurrentProfileHolder();
+        profileService = new ProfileService(
+                profileRepository,
+                mock(EmailService.class),
+                passwordHashingService,
+                mock(JwtUtil.class),
+                mock(TokenVersionRegistry.class),
+                currentProfileHolder);
+
+        AuthenticatedProfile principal = new AuthenticatedProfile(7L, "user@example.com", 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getCurrentProfile_loadsProfileOnlyOncePerRequest() {
+        ProfileEntity profile = ProfileEntity.builder().id(7L).email("user@example.com").build();
+        when(profileRepository.findById(7L)).thenReturn(Optional.of(profile));
+
+        ProfileEntity first = profileService.getCurrentProfile();
+        for (int i = 0; i < 4; i++) {
+            assertSame(first, profileService.getCurrentProfile());
+        }
+
+        assertEquals(1, currentProfileHolder.getLookupCount());
+        verify(profileRepository, times(1)).findById(7L);
+    }
+
+    @Test
+    void getCurrentProfileId_readsPrincipalWithoutQuery() {
+        assertEquals(7L, profileService.getCurrentProfileId());
+        assertEquals(0, currentProfileHolder.getLookupCount());
+        verifyNoInteractions(profileRepository);
+    }
+
+    @Test
+    void authenticateAndGenerateToken_reencodesOutdatedHashAfterSuccessfulLogin() {
+        ProfileEntity profile = ProfileEntity.builder()
+                .id(7L).email("user@example.com").password("$2a$10$old").isActive(true).build();
+        when(profileRepository.findByEmail("user@example.com")).thenReturn(Optional.of(profile));
+        when(passwordHashingService.matches("secret", "$2a$10$old")).thenReturn(true);
+        when(passwordHashingService.needsRehash("$2a$10$old")).thenReturn(true);
+        when(passwordHashingService.encode("secret")).thenReturn("{bcrypt}$2a$12$new");
+
+        profileService.authenticateAndGenerateToken(new AuthDTO("User@Example.com", "secret"));
+
+        assertEquals("{bcrypt}$2a$12$new", profile.getPassword());
+        verify(profileRepository).save(profile);
+        verify(profileRepository, times(1)).findByEmail("user@example.com");
+    }
+
+    @Test
+    void authenticateAndGenerateToken_leavesCurrentHashAlone() {
+        ProfileEntity profile = ProfileEntity.builder()
+                .id(7L).email("user@example.com").password("{bcrypt}$2a$12$cur").isActive(true).build();
+        when(profileRepository.findByEmail("user@example.com")).thenReturn(Optional.of(profile));
+        when(passwordHashingService.matches("secret", "{bcrypt}$2a$12$cur")).thenReturn(true);
+
+        profileService.authenticateAndGenerateToken(new AuthDTO("user@example.com", "secret"));
+
+        verify(profileRepository, never()).save(profile);
+    }
+}
@@ -114,6 +114,8 @@ const Profile = () => {
         try {
             const response = await axiosConfig.put(API_ENDPOINTS.CHANGE_PASSWORD, { oldPassword, newPassword });
             if (response.status === 200) {
+                // Old tokens are revoked by a password change — keep this session alive with the new one
+                if (response.data?.token) localStorage.setItem("token", response.data.token);
                 toast.success("Password changed successfully!");
                 closeModal();
             }